@@ -0,0 +1,61 @@
+package com.mig35.carousellayoutmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LayoutHelper#generateLayoutOrder(double, int, boolean, int)} as it is called on every scroll frame. <br />
+ * <br />
+ * Scroll position is moved by a part of item on every call, so both layout plan reuse (the same center item)
+ * and plan rebuild (center item is changed) are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutOrderBenchmark {
+
+    // one item is passed in 8 frames
+    private static final double SCROLL_STEP = 0.125;
+
+    @Param({"10", "1000", "100000"})
+    public int mItemsCount;
+
+    @Param({"2", "6", "20"})
+    public int mMaxVisibleItems;
+
+    @Param({"false", "true"})
+    public boolean mCircleLayout;
+
+    private LayoutHelper mLayoutHelper;
+    private double mScrollPosition;
+
+    @Setup
+    public void setUp() {
+        mLayoutHelper = new LayoutHelper(mMaxVisibleItems);
+        mScrollPosition = 0;
+    }
+
+    @Benchmark
+    public int generateLayoutOrder() {
+        mScrollPosition += SCROLL_STEP;
+        if (!mCircleLayout && mScrollPosition > mItemsCount - 1) {
+            mScrollPosition = 0;
+        }
+        mLayoutHelper.generateLayoutOrder(mScrollPosition, mItemsCount, mCircleLayout, 0);
+        return mLayoutHelper.mLayoutCount;
+    }
+}
\ No newline at end of file
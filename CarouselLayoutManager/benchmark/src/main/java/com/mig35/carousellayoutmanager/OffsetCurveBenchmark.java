@@ -0,0 +1,67 @@
+package com.mig35.carousellayoutmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures card offset calculation of all items of one layout pass: {@link CarouselOffsetCurve} call
+ * and {@link LayoutHelper#getCardOffset(float, double, int)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffsetCurveBenchmark {
+
+    private static final int CARD_OFFSET_DIMEN = 540;
+
+    @Param({"default", "lookupTable"})
+    public String mCurve;
+
+    @Param({"2", "6", "20"})
+    public int mMaxVisibleItems;
+
+    private CarouselOffsetCurve mOffsetCurve;
+    private float[] mItemPositionDiffs;
+
+    @Setup
+    public void setUp() {
+        if ("lookupTable".equals(mCurve)) {
+            mOffsetCurve = new LookupTableOffsetCurve(new DefaultOffsetCurve());
+        } else {
+            mOffsetCurve = new DefaultOffsetCurve();
+        }
+        mOffsetCurve.onLayoutChanged(mMaxVisibleItems, CARD_OFFSET_DIMEN);
+
+        // the same differences as layout order has in the middle of scroll between two items
+        final LayoutHelper layoutHelper = new LayoutHelper(mMaxVisibleItems);
+        layoutHelper.generateLayoutOrder(50.3, 100, false, 0);
+        mItemPositionDiffs = new float[layoutHelper.mLayoutCount];
+        System.arraycopy(layoutHelper.mItemPositionDiffs, 0, mItemPositionDiffs, 0, layoutHelper.mLayoutCount);
+    }
+
+    @Benchmark
+    public int getCardOffsets() {
+        final CarouselOffsetCurve offsetCurve = mOffsetCurve;
+        final int maxVisibleItems = mMaxVisibleItems;
+        int result = 0;
+        for (final float itemPositionDiff : mItemPositionDiffs) {
+            final double smoothPosition = offsetCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, maxVisibleItems);
+            result += LayoutHelper.getCardOffset(itemPositionDiff, smoothPosition, CARD_OFFSET_DIMEN);
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.mig35.carousellayoutmanager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LayoutHelper#makeScrollPositionInRange0ToCount(double, int)} for positions inside and far outside of [0, count).
+ * Far positions are usual for circle layout that was scrolled for a long time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrollPositionBenchmark {
+
+    @Param({"10", "100000"})
+    public int mItemsCount;
+
+    @Param({"5.3", "-5.3", "1234567.8", "-1234567.8"})
+    public double mScrollPosition;
+
+    @Benchmark
+    public double makeScrollPositionInRange0ToCount() {
+        return LayoutHelper.makeScrollPositionInRange0ToCount(mScrollPosition, mItemsCount);
+    }
+}
\ No newline at end of file
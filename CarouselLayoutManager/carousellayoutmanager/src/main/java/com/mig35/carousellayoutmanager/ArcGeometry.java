@@ -0,0 +1,60 @@
+package com.mig35.carousellayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselGeometry} that places items on a circle arc. Items are rotated along the arc. <br />
+ * <br />
+ * Arc bends down in horizontal layout and to the right in vertical one. Items on the edge of maxVisibleItems are rotated by maxAngle
+ * and have the same offset by scroll axis as {@link CarouselLayoutManager} gives them without geometry.
+ */
+public class ArcGeometry extends CarouselGeometry {
+
+    private static final float DEFAULT_MAX_ANGLE = 60;
+
+    private final float mMaxAngle;
+
+    @SuppressWarnings("unused")
+    public ArcGeometry() {
+        this(DEFAULT_MAX_ANGLE);
+    }
+
+    /**
+     * @param maxAngle angle of the edge items in degrees. should be in (0, 90] range
+     */
+    public ArcGeometry(final float maxAngle) {
+        if (0 >= maxAngle || 90 < maxAngle) {
+            throw new IllegalArgumentException("maxAngle should be in (0, 90] range");
+        }
+        mMaxAngle = maxAngle;
+    }
+
+    /**
+     * Arc depends only on max angle and batch inputs.
+     */
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    public void transformItems(@NonNull final ItemTransformationBatch batch) {
+        final double maxAngle = Math.toRadians(mMaxAngle);
+        final double anglePerItem = maxAngle / Math.max(batch.getMaxVisibleItems(), 1);
+        final double radius = batch.getCardOffsetDimen() / Math.sin(maxAngle);
+        final boolean vertical = CarouselLayoutManager.VERTICAL == batch.getOrientation();
+
+        final float[] itemPositionDiffs = batch.getItemPositionDiffs();
+        final float[] mainTranslations = vertical ? batch.getTranslationY() : batch.getTranslationX();
+        final float[] crossTranslations = vertical ? batch.getTranslationX() : batch.getTranslationY();
+        final float[] rotations = batch.getRotation();
+        for (int i = 0, count = batch.getCount(); i < count; ++i) {
+            // items never go around the whole circle
+            final double angle = Math.max(-Math.PI, Math.min(Math.PI, itemPositionDiffs[i] * anglePerItem));
+            mainTranslations[i] = (float) (radius * Math.sin(angle));
+            crossTranslations[i] = (float) (radius * (1 - Math.cos(angle)));
+            rotations[i] = (float) (vertical ? -Math.toDegrees(angle) : Math.toDegrees(angle));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.mig35.carousellayoutmanager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselLayoutManager.PostLayoutListener} that samples another pure listener into keyframes and uses linear interpolation between them. <br />
+ * <br />
+ * Keyframes cover [-(maxVisibleItems + 1), maxVisibleItems + 1] differences and are built for one child size and orientation.
+ * They are rebuilt when maxVisibleItems, orientation or child measured size is changed. Differences outside of keyframes are calculated
+ * by the source listener. If source listener returns no transformation for some difference, then identity transformation is used there. <br />
+ * <br />
+ * This listener works best if all items have the same size: a child of another size is transformed by the source listener,
+ * and keyframes are rebuilt only if two children in a row have the same new size.
+ *
+ * @see CarouselLayoutManager.PostLayoutListener#isPure()
+ */
+public class CachingPostLayoutListener extends CarouselLayoutManager.PostLayoutListener {
+
+    private static final int DEFAULT_SAMPLES_PER_ITEM = 16;
+
+    @NonNull
+    private final CarouselLayoutManager.PostLayoutListener mSourceListener;
+    private final int mSamplesPerItem;
+    private final ItemTransformation mSampleTransformation = new ItemTransformation();
+
+    private int mMaxVisibleItems = CarouselLayoutManager.MAX_VISIBLE_ITEMS;
+
+    private float[] mScaleX;
+    private float[] mScaleY;
+    private float[] mTranslationX;
+    private float[] mTranslationY;
+    private float[] mAlpha;
+    private float[] mRotation;
+    private float[] mRotationX;
+    private float[] mRotationY;
+    private boolean mKeyframesValid;
+    private int mKeyframesRange;
+    private int mKeyframesOrientation;
+    private int mKeyframesWidth;
+    private int mKeyframesHeight;
+
+    private int mMissWidth = -1;
+    private int mMissHeight = -1;
+
+    @SuppressWarnings("unused")
+    public CachingPostLayoutListener(@NonNull final CarouselLayoutManager.PostLayoutListener sourceListener) {
+        this(sourceListener, DEFAULT_SAMPLES_PER_ITEM);
+    }
+
+    /**
+     * @param sourceListener pure listener to cache
+     * @param samplesPerItem keyframes count for one item difference. should be greater then 0
+     */
+    public CachingPostLayoutListener(@NonNull final CarouselLayoutManager.PostLayoutListener sourceListener, final int samplesPerItem) {
+        if (!sourceListener.isPure()) {
+            throw new IllegalArgumentException("only pure listener can be cached");
+        }
+        if (0 >= samplesPerItem) {
+            throw new IllegalArgumentException("samplesPerItem can't be less then 1");
+        }
+        mSourceListener = sourceListener;
+        mSamplesPerItem = samplesPerItem;
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    public void onLayoutChanged(final int maxVisibleItems) {
+        mSourceListener.onLayoutChanged(maxVisibleItems);
+        mMaxVisibleItems = maxVisibleItems;
+        mKeyframesValid = false;
+    }
+
+    @Override
+    public ItemTransformation transformChild(@NonNull final View child, final float itemPositionToCenterDiff, final int orientation) {
+        final ItemTransformation transformation = new ItemTransformation();
+        transformChild(child, itemPositionToCenterDiff, orientation, CarouselLayoutManager.INVALID_POSITION, transformation);
+        return transformation;
+    }
+
+    @Override
+    public boolean transformChild(@NonNull final View child, final float itemPositionToCenterDiff, final int orientation, final int itemPositionInAdapter,
+                                  @NonNull final ItemTransformation outTransformation) {
+        if (!hasKeyframes(child, orientation)) {
+            return mSourceListener.transformChild(child, itemPositionToCenterDiff, orientation, itemPositionInAdapter, outTransformation);
+        }
+
+        final float keyframePosition = (itemPositionToCenterDiff + mKeyframesRange) * mSamplesPerItem;
+        //noinspection NumericCastThatLosesPrecision
+        final int index = (int) Math.floor(keyframePosition);
+        if (0 > index || index + 1 >= mScaleX.length) {
+            return mSourceListener.transformChild(child, itemPositionToCenterDiff, orientation, itemPositionInAdapter, outTransformation);
+        }
+        final float fraction = keyframePosition - index;
+        outTransformation.set(
+                interpolate(mScaleX, index, fraction),
+                interpolate(mScaleY, index, fraction),
+                interpolate(mTranslationX, index, fraction),
+                interpolate(mTranslationY, index, fraction),
+                interpolate(mAlpha, index, fraction),
+                interpolate(mRotation, index, fraction),
+                interpolate(mRotationX, index, fraction),
+                interpolate(mRotationY, index, fraction)
+        );
+        return true;
+    }
+
+    /**
+     * Checks that keyframes are built for this child size and orientation and builds them if needed.
+     *
+     * @return true if keyframes can be used for this child
+     */
+    private boolean hasKeyframes(@NonNull final View child, final int orientation) {
+        final int width = child.getMeasuredWidth();
+        final int height = child.getMeasuredHeight();
+        if (mKeyframesValid && mKeyframesOrientation == orientation && mKeyframesWidth == width && mKeyframesHeight == height) {
+            mMissWidth = -1;
+            mMissHeight = -1;
+            return true;
+        }
+        // layout change or the first child: build at once. new child size: build only if the next child has the same size
+        if (mKeyframesValid && mKeyframesOrientation == orientation && (mMissWidth != width || mMissHeight != height)) {
+            mMissWidth = width;
+            mMissHeight = height;
+            return false;
+        }
+        buildKeyframes(child, orientation);
+        mMissWidth = -1;
+        mMissHeight = -1;
+        return true;
+    }
+
+    private void buildKeyframes(@NonNull final View child, final int orientation) {
+        final int range = mMaxVisibleItems + 1;
+        final int length = range * 2 * mSamplesPerItem + 1;
+        if (null == mScaleX || mScaleX.length != length) {
+            mScaleX = new float[length];
+            mScaleY = new float[length];
+            mTranslationX = new float[length];
+            mTranslationY = new float[length];
+            mAlpha = new float[length];
+            mRotation = new float[length];
+            mRotationX = new float[length];
+            mRotationY = new float[length];
+        }
+
+        final ItemTransformation transformation = mSampleTransformation;
+        for (int i = 0; i < length; ++i) {
+            final float itemPositionDiff = 1.0f * i / mSamplesPerItem - range;
+            if (!mSourceListener.transformChild(child, itemPositionDiff, orientation, CarouselLayoutManager.INVALID_POSITION, transformation)) {
+                transformation.set(1.0f, 1.0f, 0, 0);
+            }
+            mScaleX[i] = transformation.mScaleX;
+            mScaleY[i] = transformation.mScaleY;
+            mTranslationX[i] = transformation.mTranslationX;
+            mTranslationY[i] = transformation.mTranslationY;
+            mAlpha[i] = transformation.mAlpha;
+            mRotation[i] = transformation.mRotation;
+            mRotationX[i] = transformation.mRotationX;
+            mRotationY[i] = transformation.mRotationY;
+        }
+
+        mKeyframesValid = true;
+        mKeyframesRange = range;
+        mKeyframesOrientation = orientation;
+        mKeyframesWidth = child.getMeasuredWidth();
+        mKeyframesHeight = child.getMeasuredHeight();
+    }
+
+    private static float interpolate(@NonNull final float[] keyframes, final int index, final float fraction) {
+        return keyframes[index] + (keyframes[index + 1] - keyframes[index]) * fraction;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.mig35.carousellayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Geometry that is used by {@link CarouselLayoutManager} to place all items of layout pass in one call. <br />
+ * <br />
+ * Every child is laid out in the layout center with its decorated size and then is moved by transformation from the batch:
+ * translation moves child center from the layout center, scale, alpha and rotations are applied around child center.
+ * So translation should include item offset from the layout center line. <br />
+ * <br />
+ * Implementations should calculate all items in one loop over batch arrays and shouldn't allocate anything.
+ * Result should depend only on batch inputs, because it is also used for item animations and occlusion culling.
+ *
+ * @see CarouselLayoutManager#setGeometry(CarouselGeometry)
+ * @see ArcGeometry
+ * @see CoverflowGeometry
+ * @see StackGeometry
+ */
+public abstract class CarouselGeometry {
+
+    /**
+     * Called on every layout pass for all visible items.
+     *
+     * @param batch items with their position diffs. results should be written to its output arrays
+     */
+    public abstract void transformItems(@NonNull ItemTransformationBatch batch);
+
+    /**
+     * Pure geometry doesn't change any state in {@link #transformItems(ItemTransformationBatch)}, so it can be called on layout planning thread.
+     * By default geometry is not pure.
+     *
+     * @return true if this geometry is pure
+     * @see CarouselLayoutManager#setLayoutPlanExecutor(java.util.concurrent.Executor)
+     */
+    public boolean isPure() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,20 @@
 package com.mig35.carousellayoutmanager;
 
+import android.content.Context;
 import android.graphics.PointF;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
@@ -26,7 +29,8 @@ import androidx.recyclerview.widget.RecyclerView;
  * Generally there is one center item and bellow this item there are maximum {@link CarouselLayoutManager#getMaxVisibleItems()} items on each side of the center
  * item. By default {@link CarouselLayoutManager#getMaxVisibleItems()} is {@link CarouselLayoutManager#MAX_VISIBLE_ITEMS}.<br />
  * <br />
- * This LayoutManager supports only fixedSized adapter items.<br />
+ * By default this LayoutManager supports only fixedSized adapter items.
+ * Items with different sizes are supported by {@link #setVariableItemSizeEnabled(boolean)} mode.<br />
  * <br />
  * This LayoutManager supports {@link CarouselLayoutManager#HORIZONTAL} and {@link CarouselLayoutManager#VERTICAL} orientations. <br />
  * <br />
@@ -44,25 +48,115 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
 
     public static final int INVALID_POSITION = -1;
     public static final int MAX_VISIBLE_ITEMS = 3;
+    public static final int PREFETCH_ITEMS = 1;
+
+    /**
+     * Children z order is set by elevation. Center item has the biggest elevation.
+     */
+    public static final int Z_ORDER_ELEVATION = 0;
+    /**
+     * Children z order is set only by drawing order of RecyclerView. Center item is always the last child, so it is drawn over others.
+     * Elevation is not touched, so there are no shadows recalculations during scroll.
+     */
+    public static final int Z_ORDER_DRAWING_ORDER = 1;
 
     private static final boolean CIRCLE_LAYOUT = false;
+    private static final int INVALID_VIEW_TYPE = Integer.MIN_VALUE;
 
     private boolean mDecoratedChildSizeInvalid;
     private Integer mDecoratedChildWidth;
     private Integer mDecoratedChildHeight;
+    /**
+     * Decorated child sizes by item view type. They are valid while parent measure specs, adapter and item decorations are the same.
+     */
+    private final SparseIntArray mDecoratedChildWidths = new SparseIntArray();
+    private final SparseIntArray mDecoratedChildHeights = new SparseIntArray();
+    /**
+     * Measure generation in which cached size of view type was checked last time
+     */
+    private final SparseIntArray mCheckedViewTypeGenerations = new SparseIntArray();
+    private int mLastWidthMeasureSpec;
+    private int mLastHeightMeasureSpec;
+    @SuppressWarnings("rawtypes")
+    @Nullable
+    private RecyclerView.Adapter mAdapter;
 
     private final int mOrientation;
     private boolean mCircleLayout;
+    private boolean mIncrementalLayoutEnabled = true;
+    private boolean mVariableItemSize;
+    private boolean mItemSizeUpdatesEnabled;
+    private boolean mItemSizesChanged;
+    private final ItemSizeIndex mItemSizeIndex = new ItemSizeIndex();
 
     private int mPendingScrollPosition;
 
     private final LayoutHelper mLayoutHelper = new LayoutHelper(MAX_VISIBLE_ITEMS);
+    private final SparseArray<View> mAttachedViews = new SparseArray<>();
+    private int mMeasureGeneration;
+    private long mChildMeasureCount;
 
     private PostLayoutListener mViewPostLayout;
+    @Nullable
+    private CarouselGeometry mGeometry;
+    private final ItemTransformationBatch mTransformBatch = new ItemTransformationBatch();
+    @NonNull
+    private CarouselOffsetCurve mOffsetCurve = new DefaultOffsetCurve();
+    private int mCardOffsetDimen;
+    private final ItemTransformation mItemTransformation = new ItemTransformation();
+    private boolean mPropertyTransformEnabled;
+    private int mZOrderStrategy = Z_ORDER_ELEVATION;
+    /**
+     * Children properties cached in {@link LayoutParams} are valid only for this generation.
+     */
+    private int mPropertyGeneration;
+    /**
+     * True if alpha or rotations were pushed to children since they were reset last time.
+     */
+    private boolean mChildAlphaAndRotationWritten;
+    private boolean mHardwareLayersDuringScrollEnabled;
+    private boolean mOcclusionCullingEnabled;
+    private float mOcclusionVisibleThreshold;
+    private final OcclusionCuller mOcclusionCuller = new OcclusionCuller();
+
+    @Nullable
+    private OnLayoutMetricsListener mOnLayoutMetricsListener;
+    @Nullable
+    private LayoutMetrics mLayoutMetrics;
+    /**
+     * Not null only during {@link #fillData(RecyclerView.Recycler, RecyclerView.State)} if metrics listener is set.
+     */
+    @Nullable
+    private LayoutMetrics mActiveLayoutMetrics;
 
     private final List<OnCenterItemSelectionListener> mOnCenterItemSelectionListeners = new ArrayList<>();
+    private final List<OnCenterItemSettledListener> mOnCenterItemSettledListeners = new ArrayList<>();
     private int mCenterItemPosition = INVALID_POSITION;
+    private boolean mCenterItemChangeCoalescingEnabled;
+    private int mDispatchedCenterItemPosition = INVALID_POSITION;
+    private int mSettledCenterItemPosition = INVALID_POSITION;
+    private int mScrollState = RecyclerView.SCROLL_STATE_IDLE;
+    @Nullable
+    private Handler mMainHandler;
+    private boolean mCenterItemDispatchPending;
+    private final Runnable mCenterItemDispatcher = new Runnable() {
+        @Override
+        public void run() {
+            dispatchCenterItem();
+        }
+    };
     private int mItemsCount;
+    private int mPrefetchItemCount = PREFETCH_ITEMS;
+    private int mSmoothScrollJumpItemCount;
+    @Nullable
+    private LayoutPlanner mLayoutPlanner;
+    private final FramePlan mLayoutPlanRequest = new FramePlan();
+    private int mLastScrollDiff;
+    /**
+     * True if pure listener transformations of current layout pass were taken from layout plan
+     */
+    private boolean mListenerTransformPlanned;
+    private int mMaxSmoothScrollStepDuration;
 
     @Nullable
     private CarouselSavedState mPendingCarouselSavedState;
@@ -102,6 +196,218 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         }
     }
 
+    /**
+     * Change incremental layout mode. By default it is enabled. <br />
+     * <br />
+     * If enabled, then during scroll children that stay in layout are kept attached and only moved,
+     * new items are fetched and old ones are recycled only on layout edges.
+     * If disabled, then all children are detached and bound again on every scroll pass.
+     */
+    @SuppressWarnings("unused")
+    public void setIncrementalLayoutEnabled(final boolean incrementalLayoutEnabled) {
+        if (mIncrementalLayoutEnabled != incrementalLayoutEnabled) {
+            mIncrementalLayoutEnabled = incrementalLayoutEnabled;
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return true if incremental layout is enabled
+     * @see #setIncrementalLayoutEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isIncrementalLayoutEnabled() {
+        return mIncrementalLayoutEnabled;
+    }
+
+    /**
+     * Change transform mode. By default it is disabled. <br />
+     * <br />
+     * If disabled, then children are laid out at their scroll position and {@link ItemTransformation} translation is added to their bounds,
+     * so children that move are laid out on every scroll pass. <br />
+     * If enabled, then children are laid out once in the layout center and their scroll offset and {@link ItemTransformation}
+     * are applied only as view properties: translation, scale, alpha and rotation. Scroll then only updates display list properties.
+     * Translation, alpha and rotation of children are owned by this LayoutManager in this mode.
+     */
+    @SuppressWarnings("unused")
+    public void setPropertyTransformEnabled(final boolean propertyTransformEnabled) {
+        if (mPropertyTransformEnabled != propertyTransformEnabled) {
+            mPropertyTransformEnabled = propertyTransformEnabled;
+            for (int i = 0, count = getChildCount(); i < count; ++i) {
+                final View child = getChildAt(i);
+                child.setTranslationX(0);
+                child.setTranslationY(0);
+            }
+            resetChildrenAlphaAndRotation();
+            ++mPropertyGeneration;
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return true if property transform mode is enabled
+     * @see #setPropertyTransformEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isPropertyTransformEnabled() {
+        return mPropertyTransformEnabled;
+    }
+
+    /**
+     * Change how children z order is set. By default it is {@link #Z_ORDER_ELEVATION}.
+     *
+     * @param zOrderStrategy {@link #Z_ORDER_ELEVATION} or {@link #Z_ORDER_DRAWING_ORDER}
+     */
+    @SuppressWarnings("unused")
+    public void setZOrderStrategy(final int zOrderStrategy) {
+        if (Z_ORDER_ELEVATION != zOrderStrategy && Z_ORDER_DRAWING_ORDER != zOrderStrategy) {
+            throw new IllegalArgumentException("zOrderStrategy should be Z_ORDER_ELEVATION or Z_ORDER_DRAWING_ORDER");
+        }
+        if (mZOrderStrategy != zOrderStrategy) {
+            mZOrderStrategy = zOrderStrategy;
+            if (Z_ORDER_DRAWING_ORDER == zOrderStrategy) {
+                for (int i = 0, count = getChildCount(); i < count; ++i) {
+                    ViewCompat.setElevation(getChildAt(i), 0);
+                }
+            }
+            ++mPropertyGeneration;
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return current z order strategy
+     * @see #setZOrderStrategy(int)
+     */
+    @SuppressWarnings("unused")
+    public int getZOrderStrategy() {
+        return mZOrderStrategy;
+    }
+
+    /**
+     * If enabled, then children use hardware layers while scroll is in progress and layers are dropped once scroll is idle.
+     * By default it is disabled. <br />
+     * <br />
+     * This works best together with {@link #setPropertyTransformEnabled(boolean)}: children content is not changed during scroll,
+     * so it is drawn to layers once and then only composed with new properties.
+     */
+    @SuppressWarnings("unused")
+    public void setHardwareLayersDuringScrollEnabled(final boolean hardwareLayersDuringScrollEnabled) {
+        if (mHardwareLayersDuringScrollEnabled != hardwareLayersDuringScrollEnabled) {
+            if (!hardwareLayersDuringScrollEnabled) {
+                // drop layers that were set by us
+                for (int i = 0, count = getChildCount(); i < count; ++i) {
+                    final View child = getChildAt(i);
+                    if (View.LAYER_TYPE_HARDWARE == child.getLayerType()) {
+                        child.setLayerType(View.LAYER_TYPE_NONE, null);
+                    }
+                }
+            }
+            mHardwareLayersDuringScrollEnabled = hardwareLayersDuringScrollEnabled;
+            if (hardwareLayersDuringScrollEnabled) {
+                updateChildrenLayerType();
+            }
+        }
+    }
+
+    /**
+     * @return true if children use hardware layers during scroll
+     * @see #setHardwareLayersDuringScrollEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isHardwareLayersDuringScrollEnabled() {
+        return mHardwareLayersDuringScrollEnabled;
+    }
+
+    /**
+     * Enables occlusion culling. By default it is disabled. <br />
+     * <br />
+     * If enabled, then items that are hidden behind items drawn over them are not bound, laid out and drawn.
+     * Hidden part is calculated from item offsets and {@link PostLayoutListener} or {@link CarouselGeometry} transformations before items are bound,
+     * so culling works only with geometry, without listener or with pure one (see {@link PostLayoutListener#isPure()})
+     * and only if variable item size mode is disabled.
+     * Culling is skipped during item animations. <br />
+     * <br />
+     * Items should be opaque and fill their bounds and transformations should use default view pivot.
+     * Items with alpha less then 1 or with any rotation never hide other items. Culled items count is reported by {@link LayoutMetrics#getCulledItemCount()}.
+     *
+     * @see #setOcclusionVisibleThreshold(float)
+     */
+    @SuppressWarnings("unused")
+    public void setOcclusionCullingEnabled(final boolean occlusionCullingEnabled) {
+        if (mOcclusionCullingEnabled != occlusionCullingEnabled) {
+            mOcclusionCullingEnabled = occlusionCullingEnabled;
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return true if occlusion culling is enabled
+     * @see #setOcclusionCullingEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isOcclusionCullingEnabled() {
+        return mOcclusionCullingEnabled;
+    }
+
+    /**
+     * Setup how much of item can be visible for it to be culled. By default it is 0, so only fully hidden items are culled.
+     *
+     * @param visibleThreshold item is culled if its visible part is not bigger then this part of its size. should be in [0, 1) range
+     * @see #setOcclusionCullingEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public void setOcclusionVisibleThreshold(final float visibleThreshold) {
+        if (0 > visibleThreshold || 1 <= visibleThreshold) {
+            throw new IllegalArgumentException("visibleThreshold should be in [0, 1) range");
+        }
+        if (mOcclusionVisibleThreshold != visibleThreshold) {
+            mOcclusionVisibleThreshold = visibleThreshold;
+            if (mOcclusionCullingEnabled) {
+                requestLayout();
+            }
+        }
+    }
+
+    /**
+     * @return current visible threshold of occlusion culling
+     * @see #setOcclusionVisibleThreshold(float)
+     */
+    @SuppressWarnings("unused")
+    public float getOcclusionVisibleThreshold() {
+        return mOcclusionVisibleThreshold;
+    }
+
+    /**
+     * Change variable item size mode. By default it is disabled and all items should have the same size. <br />
+     * <br />
+     * If enabled, then each item uses its own measured size along scroll axis. Sizes are measured lazily when items are laid out,
+     * not measured items are supposed to have the same size as the first measured item.
+     * Scroll offsets are calculated using prefix sums of this sizes, so scroll and {@link #scrollToPosition(int)} stay O(log n) for any adapter size.
+     * Measured sizes are kept when items are inserted, removed or moved.
+     */
+    @SuppressWarnings("unused")
+    public void setVariableItemSizeEnabled(final boolean variableItemSize) {
+        if (mVariableItemSize != variableItemSize) {
+            mVariableItemSize = variableItemSize;
+            // force size index rebuild and keep current center item
+            mItemSizeIndex.reset(0, 0);
+            if (INVALID_POSITION == mPendingScrollPosition && null == mPendingCarouselSavedState) {
+                mPendingScrollPosition = mCenterItemPosition;
+            }
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return true if variable item size mode is enabled
+     * @see #setVariableItemSizeEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isVariableItemSizeEnabled() {
+        return mVariableItemSize;
+    }
+
     /**
      * Setup {@link CarouselLayoutManager.PostLayoutListener} for this LayoutManager.
      * Its methods will be called for each visible view item after general LayoutManager layout finishes. <br />
@@ -112,10 +418,54 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      */
     @SuppressWarnings("unused")
     public void setPostLayoutListener(@Nullable final PostLayoutListener postLayoutListener) {
+        finishLayoutPlanning();
+        if (null != mViewPostLayout) {
+            // previous listener could set alpha and rotations with batch transformation
+            resetChildrenAlphaAndRotation();
+            ++mPropertyGeneration;
+        }
         mViewPostLayout = postLayoutListener;
+        if (null != postLayoutListener) {
+            postLayoutListener.onLayoutChanged(mLayoutHelper.mMaxVisibleItems);
+        }
         requestLayout();
     }
 
+    /**
+     * Setup {@link CarouselGeometry} for this LayoutManager. By default it is null. <br />
+     * <br />
+     * If geometry is set, then it calculates translation, scale, alpha and rotations of all visible items in one call per layout pass.
+     * {@link CarouselOffsetCurve}, {@link #getCardOffsetByPositionDiff(float)} and {@link PostLayoutListener} are not used then.
+     * Alpha and rotations are applied in both transform modes (see {@link #setPropertyTransformEnabled(boolean)}).
+     *
+     * @param geometry geometry for all items or null to use offset curve and post layout listener
+     * @see ArcGeometry
+     * @see CoverflowGeometry
+     * @see StackGeometry
+     */
+    @SuppressWarnings("unused")
+    public void setGeometry(@Nullable final CarouselGeometry geometry) {
+        if (mGeometry != geometry) {
+            finishLayoutPlanning();
+            if (null != mGeometry) {
+                resetChildrenAlphaAndRotation();
+            }
+            mGeometry = geometry;
+            ++mPropertyGeneration;
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return current geometry or null if it is not set
+     * @see #setGeometry(CarouselGeometry)
+     */
+    @Nullable
+    @SuppressWarnings("unused")
+    public CarouselGeometry getGeometry() {
+        return mGeometry;
+    }
+
     /**
      * Setup maximum visible (layout) items on each side of the center item.
      * Basically during scrolling there can be more visible items (+1 item on each side), but in idle state this is the only reached maximum.
@@ -128,7 +478,12 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         if (0 > maxVisibleItems) {
             throw new IllegalArgumentException("maxVisibleItems can't be less then 0");
         }
+        finishLayoutPlanning();
         mLayoutHelper.mMaxVisibleItems = maxVisibleItems;
+        mOffsetCurve.onLayoutChanged(maxVisibleItems, mCardOffsetDimen);
+        if (null != mViewPostLayout) {
+            mViewPostLayout.onLayoutChanged(maxVisibleItems);
+        }
         requestLayout();
     }
 
@@ -141,9 +496,174 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         return mLayoutHelper.mMaxVisibleItems;
     }
 
+    /**
+     * Setup {@link CarouselOffsetCurve} that is used by {@link #convertItemPositionDiffToSmoothPositionDiff(float)}.
+     * By default {@link DefaultOffsetCurve} is used. Wrap expensive curves into {@link LookupTableOffsetCurve}.
+     *
+     * @param offsetCurve curve for item offsets calculation. can't be null
+     */
+    @SuppressWarnings("unused")
+    public void setOffsetCurve(@NonNull final CarouselOffsetCurve offsetCurve) {
+        mOffsetCurve = offsetCurve;
+        mOffsetCurve.onLayoutChanged(mLayoutHelper.mMaxVisibleItems, mCardOffsetDimen);
+        requestLayout();
+    }
+
+    /**
+     * @return current offset curve
+     * @see #setOffsetCurve(CarouselOffsetCurve)
+     */
+    @NonNull
+    @SuppressWarnings("unused")
+    public CarouselOffsetCurve getOffsetCurve() {
+        return mOffsetCurve;
+    }
+
+    /**
+     * Setup how many items on the layout edge should be prefetched by {@link RecyclerView} during scroll.
+     * These items are bound in idle time before they are needed, so scroll frames don't inflate and bind them.
+     * By default it is {@link #PREFETCH_ITEMS}.
+     *
+     * @param prefetchItemCount items count to prefetch in scroll direction. 0 disables prefetch. can't be less then 0
+     */
+    @SuppressWarnings("unused")
+    public void setPrefetchItemCount(final int prefetchItemCount) {
+        if (0 > prefetchItemCount) {
+            throw new IllegalArgumentException("prefetchItemCount can't be less then 0");
+        }
+        mPrefetchItemCount = prefetchItemCount;
+    }
+
+    /**
+     * @return current prefetch items count
+     * @see #setPrefetchItemCount(int)
+     */
+    @SuppressWarnings("unused")
+    public int getPrefetchItemCount() {
+        return mPrefetchItemCount;
+    }
+
+    /**
+     * Enables background layout planning. By default it is disabled. <br />
+     * <br />
+     * If enabled, then during scroll the next frame is planned on executor: its scroll offset is extrapolated from the last scroll steps,
+     * and layout order with item transformations is calculated for it before it is needed. Layout uses ready plan only if it was built
+     * for exactly the same scroll offset and layout config, else everything is calculated synchronously, so layout result doesn't depend on the executor. <br />
+     * <br />
+     * Only pure {@link CarouselGeometry} and pure {@link PostLayoutListener} are called on executor, layout with other ones is always calculated
+     * synchronously. Planned pure listener transformations are calculated by its per-child method.
+     * Card offsets are always calculated on the main thread, because they are calculated by overridable methods.
+     * This is useful for layouts with many visible items.
+     *
+     * @param executor executor for planning or null to disable it
+     * @see CarouselGeometry#isPure()
+     * @see PostLayoutListener#isPure()
+     */
+    @SuppressWarnings("unused")
+    public void setLayoutPlanExecutor(@Nullable final Executor executor) {
+        finishLayoutPlanning();
+        mLayoutPlanner = null == executor ? null : new LayoutPlanner(executor);
+    }
+
+    /**
+     * Enables jump mode of {@link #smoothScrollToPosition(RecyclerView, RecyclerView.State, int)}. By default it is disabled. <br />
+     * <br />
+     * If target item is farther then jumpItemCount items from the center one, then layout jumps to jumpItemCount items before target
+     * and only the rest is animated. Items between are never bound. In circle layout jump and animation go the shortest way around the circle.
+     *
+     * @param jumpItemCount count of items that are animated before target. 0 disables jump mode
+     */
+    @SuppressWarnings("unused")
+    public void setSmoothScrollJumpItemCount(final int jumpItemCount) {
+        if (0 > jumpItemCount) {
+            throw new IllegalArgumentException("jumpItemCount can't be less then 0");
+        }
+        mSmoothScrollJumpItemCount = jumpItemCount;
+    }
+
+    /**
+     * @return count of items that are animated before target or 0 if jump mode is disabled
+     * @see #setSmoothScrollJumpItemCount(int)
+     */
+    @SuppressWarnings("unused")
+    public int getSmoothScrollJumpItemCount() {
+        return mSmoothScrollJumpItemCount;
+    }
+
+    /**
+     * Limits duration of {@link #smoothScrollToPosition(RecyclerView, RecyclerView.State, int)} steps. By default there is no limit. <br />
+     * <br />
+     * Smooth scroll moves in steps until target item is laid out and then animates to it, so this limits the final animation duration
+     * and makes long scrolls faster.
+     *
+     * @param maxStepDuration maximum step duration in milliseconds. 0 removes the limit
+     */
+    @SuppressWarnings("unused")
+    public void setMaxSmoothScrollStepDuration(final int maxStepDuration) {
+        if (0 > maxStepDuration) {
+            throw new IllegalArgumentException("maxStepDuration can't be less then 0");
+        }
+        mMaxSmoothScrollStepDuration = maxStepDuration;
+    }
+
+    /**
+     * @return maximum smooth scroll step duration in milliseconds or 0 if there is no limit
+     * @see #setMaxSmoothScrollStepDuration(int)
+     */
+    @SuppressWarnings("unused")
+    public int getMaxSmoothScrollStepDuration() {
+        return mMaxSmoothScrollStepDuration;
+    }
+
     @Override
     public RecyclerView.LayoutParams generateDefaultLayoutParams() {
-        return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        return new LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(final Context c, final AttributeSet attrs) {
+        return new LayoutParams(c, attrs);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(final ViewGroup.LayoutParams lp) {
+        if (lp instanceof ViewGroup.MarginLayoutParams) {
+            return new LayoutParams((ViewGroup.MarginLayoutParams) lp);
+        } else {
+            return new LayoutParams(lp);
+        }
+    }
+
+    @Override
+    public boolean checkLayoutParams(final RecyclerView.LayoutParams lp) {
+        return lp instanceof LayoutParams;
+    }
+
+    /**
+     * Children are measured only if they can have a different size since their last measure.
+     * This counter helps to check that there are no measures during scroll.
+     *
+     * @return count of child measure calls done by this LayoutManager since its creation
+     */
+    @SuppressWarnings("unused")
+    public long getChildMeasureCount() {
+        return mChildMeasureCount;
+    }
+
+    /**
+     * Set listener that receives metrics of every layout pass: time of layout phases and count of bound, reused and recycled views. <br />
+     * <br />
+     * By default there is no listener and nothing is measured. Listener is called on the main thread during layout or scroll,
+     * so it should be fast. {@link LayoutMetricsRecorder} can be used to collect percentiles for telemetry.
+     *
+     * @param onLayoutMetricsListener listener to use or null to disable metrics
+     */
+    @SuppressWarnings("unused")
+    public void setOnLayoutMetricsListener(@Nullable final OnLayoutMetricsListener onLayoutMetricsListener) {
+        mOnLayoutMetricsListener = onLayoutMetricsListener;
+        if (null != onLayoutMetricsListener && null == mLayoutMetrics) {
+            mLayoutMetrics = new LayoutMetrics();
+        }
     }
 
     /**
@@ -186,6 +706,46 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         mOnCenterItemSelectionListeners.remove(onCenterItemSelectionListener);
     }
 
+    /**
+     * @param onCenterItemSettledListener listener that will trigger when scroll goes idle with a new center item. can't be null
+     */
+    @SuppressWarnings("unused")
+    public void addOnItemSettledListener(@NonNull final OnCenterItemSettledListener onCenterItemSettledListener) {
+        mOnCenterItemSettledListeners.add(onCenterItemSettledListener);
+    }
+
+    /**
+     * @param onCenterItemSettledListener listener that was previously added by {@link #addOnItemSettledListener(OnCenterItemSettledListener)}
+     */
+    @SuppressWarnings("unused")
+    public void removeOnItemSettledListener(@NonNull final OnCenterItemSettledListener onCenterItemSettledListener) {
+        mOnCenterItemSettledListeners.remove(onCenterItemSettledListener);
+    }
+
+    /**
+     * Change center item change dispatch mode. By default it is disabled. <br />
+     * <br />
+     * If disabled, then {@link OnCenterItemSelectionListener} is called for every center item change, even if it is already outdated.
+     * If enabled, then pending changes are coalesced and listeners see only the latest center item. This mode doesn't allocate anything on dispatch.
+     */
+    @SuppressWarnings("unused")
+    public void setCenterItemChangeCoalescingEnabled(final boolean centerItemChangeCoalescingEnabled) {
+        if (mCenterItemChangeCoalescingEnabled != centerItemChangeCoalescingEnabled) {
+            mCenterItemChangeCoalescingEnabled = centerItemChangeCoalescingEnabled;
+            // all previous changes were already posted
+            mDispatchedCenterItemPosition = mCenterItemPosition;
+        }
+    }
+
+    /**
+     * @return true if center item changes are coalesced
+     * @see #setCenterItemChangeCoalescingEnabled(boolean)
+     */
+    @SuppressWarnings("unused")
+    public boolean isCenterItemChangeCoalescingEnabled() {
+        return mCenterItemChangeCoalescingEnabled;
+    }
+
     @SuppressWarnings("RefusedBequest")
     @Override
     public void scrollToPosition(final int position) {
@@ -199,7 +759,19 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
     @SuppressWarnings("RefusedBequest")
     @Override
     public void smoothScrollToPosition(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.State state, final int position) {
+        if (0 < mSmoothScrollJumpItemCount && 0 != getChildCount()) {
+            jumpCloseToPosition(position, mSmoothScrollJumpItemCount);
+        }
         final LinearSmoothScroller linearSmoothScroller = new LinearSmoothScroller(recyclerView.getContext()) {
+            @Override
+            protected int calculateTimeForScrolling(final int dx) {
+                final int time = super.calculateTimeForScrolling(dx);
+                if (0 < mMaxSmoothScrollStepDuration) {
+                    return Math.min(time, mMaxSmoothScrollStepDuration);
+                }
+                return time;
+            }
+
             @Override
             public int calculateDyToMakeVisible(final View view, final int snapPreference) {
                 if (!canScrollVertically()) {
@@ -221,13 +793,29 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         startSmoothScroll(linearSmoothScroller);
     }
 
+    /**
+     * Moves layout so target item is not farther then itemCount items from the center. Direction is kept,
+     * so in circle layout the following animation goes the shortest way.
+     */
+    private void jumpCloseToPosition(final int targetPosition, final int itemCount) {
+        // positive if target item is before current center item
+        final double distance = getScrollDirection(targetPosition);
+        if (Math.abs(distance) <= itemCount) {
+            return;
+        }
+        // in circle layout this position can be out of [0, count) range. it is fine, because scroll offset is used modulo full turn there
+        final long jumpPosition = targetPosition + (0 < distance ? itemCount : -itemCount);
+        mLayoutHelper.mScrollOffset = getScrollOffsetForPosition(jumpPosition);
+        requestLayout();
+    }
+
     @Override
     @Nullable
     public PointF computeScrollVectorForPosition(final int targetPosition) {
         if (0 == getChildCount()) {
             return null;
         }
-        final float directionDistance = getScrollDirection(targetPosition);
+        final double directionDistance = getScrollDirection(targetPosition);
         //noinspection NumericCastThatLosesPrecision
         final int direction = (int) -Math.signum(directionDistance);
 
@@ -238,12 +826,22 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         }
     }
 
-    private float getScrollDirection(final int targetPosition) {
-        final float currentScrollPosition = makeScrollPositionInRange0ToCount(getCurrentScrollPosition(), mItemsCount);
+    /**
+     * Calculates distance in items from current scroll position to targetPosition. In circle layout this is the shortest way around the circle.
+     *
+     * @param targetPosition adapter position of item
+     * @return distance in items. it is greater then 0 if target is after current scroll position and less then 0 if it is before
+     */
+    public double getItemDistanceToPosition(final int targetPosition) {
+        return -getScrollDirection(targetPosition);
+    }
+
+    private double getScrollDirection(final int targetPosition) {
+        final double currentScrollPosition = LayoutHelper.makeScrollPositionInRange0ToCount(getCurrentScrollPosition(), mItemsCount);
 
         if (mCircleLayout) {
-            final float t1 = currentScrollPosition - targetPosition;
-            final float t2 = Math.abs(t1) - mItemsCount;
+            final double t1 = currentScrollPosition - targetPosition;
+            final double t2 = Math.abs(t1) - mItemsCount;
             if (Math.abs(t1) > Math.abs(t2)) {
                 return Math.signum(t1) * t2;
             } else {
@@ -283,6 +881,7 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      */
     @CallSuper
     protected int scrollBy(final int diff, @NonNull final RecyclerView.Recycler recycler, @NonNull final RecyclerView.State state) {
+        finishLayoutPlanning();
         if (null == mDecoratedChildWidth || null == mDecoratedChildHeight) {
             return 0;
         }
@@ -291,26 +890,27 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         }
         final int resultScroll;
         if (mCircleLayout) {
+            final long maxOffset = getFullScrollSize();
+            if (0 >= maxOffset) {
+                // items have no size along scroll axis, so there is nothing to scroll
+                return 0;
+            }
             resultScroll = diff;
 
-            mLayoutHelper.mScrollOffset += resultScroll;
-
-            final int maxOffset = getScrollItemSize() * mItemsCount;
-            while (0 > mLayoutHelper.mScrollOffset) {
-                mLayoutHelper.mScrollOffset += maxOffset;
-            }
-            while (mLayoutHelper.mScrollOffset > maxOffset) {
-                mLayoutHelper.mScrollOffset -= maxOffset;
+            // wrap scroll offset into [0, maxOffset) in one step, so scroll cost doesn't depend on items count
+            long scrollOffset = (mLayoutHelper.mScrollOffset + resultScroll) % maxOffset;
+            if (0 > scrollOffset) {
+                scrollOffset += maxOffset;
             }
 
-            mLayoutHelper.mScrollOffset -= resultScroll;
+            mLayoutHelper.mScrollOffset = scrollOffset - resultScroll;
         } else {
-            final int maxOffset = getMaxScrollOffset();
+            final long maxOffset = getMaxScrollOffset();
 
             if (0 > mLayoutHelper.mScrollOffset + diff) {
-                resultScroll = -mLayoutHelper.mScrollOffset; //to make it 0
+                resultScroll = (int) -mLayoutHelper.mScrollOffset; //to make it 0
             } else if (mLayoutHelper.mScrollOffset + diff > maxOffset) {
-                resultScroll = maxOffset - mLayoutHelper.mScrollOffset; //to make it maxOffset
+                resultScroll = (int) (maxOffset - mLayoutHelper.mScrollOffset); //to make it maxOffset
             } else {
                 resultScroll = diff;
             }
@@ -318,13 +918,240 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         if (0 != resultScroll) {
             mLayoutHelper.mScrollOffset += resultScroll;
             fillData(recycler, state);
+            if (null != mLayoutPlanner) {
+                scheduleNextLayoutPlan(resultScroll, state.getItemCount());
+            }
         }
+        mLastScrollDiff = resultScroll;
         return resultScroll;
     }
 
+    /**
+     * Starts planning of the next scroll frame. Its scroll step is extrapolated from the last two steps,
+     * so scroll with constant speed or constant deceleration is planned exactly.
+     */
+    private void scheduleNextLayoutPlan(final int scrollDiff, final int itemsCount) {
+        int nextScrollDiff = scrollDiff;
+        if (0 != mLastScrollDiff && 0 < scrollDiff == 0 < mLastScrollDiff) {
+            nextScrollDiff = 2 * scrollDiff - mLastScrollDiff;
+            if (0 == nextScrollDiff || 0 < scrollDiff != 0 < nextScrollDiff) {
+                // scroll is going to stop
+                return;
+            }
+        }
+        long nextScrollOffset = mLayoutHelper.mScrollOffset + nextScrollDiff;
+        if (mCircleLayout) {
+            final long maxOffset = getFullScrollSize();
+            if (0 >= maxOffset) {
+                return;
+            }
+            nextScrollOffset %= maxOffset;
+            if (0 > nextScrollOffset) {
+                nextScrollOffset += maxOffset;
+            }
+        } else {
+            nextScrollOffset = Math.max(0, Math.min(getMaxScrollOffset(), nextScrollOffset));
+            if (nextScrollOffset == mLayoutHelper.mScrollOffset) {
+                return;
+            }
+        }
+        //noinspection ConstantConditions
+        if (setLayoutPlanRequest(nextScrollOffset, itemsCount)) {
+            mLayoutPlanner.schedule(mLayoutPlanRequest);
+            mLayoutPlanRequest.mSampleChild = null;
+        }
+    }
+
+    /**
+     * Fills {@link #mLayoutPlanRequest} with current layout inputs for given scroll offset.
+     *
+     * @return false if layout can't be planned: variable item sizes, not pure geometry or listener or nothing to scroll
+     */
+    private boolean setLayoutPlanRequest(final long scrollOffset, final int itemsCount) {
+        if (mVariableItemSize || null == mDecoratedChildWidth || null == mDecoratedChildHeight || 0 == getChildCount() || 0 == getMaxScrollOffset()) {
+            return false;
+        }
+        if (null != mGeometry ? !mGeometry.isPure() : null != mViewPostLayout && !mViewPostLayout.isPure()) {
+            return false;
+        }
+        final int scrollItemSize = getScrollItemSize();
+        if (0 >= scrollItemSize) {
+            return false;
+        }
+        mLayoutPlanRequest.setInputs(scrollOffset, scrollItemSize, itemsCount, mCircleLayout, mLayoutHelper.mMaxVisibleItems, mOrientation,
+                mDecoratedChildWidth, mDecoratedChildHeight, mCardOffsetDimen, mGeometry, mViewPostLayout, getChildAt(getChildCount() - 1));
+        return true;
+    }
+
+    /**
+     * Waits for layout planning, so geometry, listener and children can be used on the main thread.
+     */
+    private void finishLayoutPlanning() {
+        if (null != mLayoutPlanner) {
+            mLayoutPlanner.finish();
+        }
+    }
+
+    /**
+     * Adds items that will be the next to enter layout in scroll direction.
+     * Item enters layout when the nearest to center item position differs from it by {@link #getMaxVisibleItems()},
+     * so distance to each item is a distance to scroll position where this happens.
+     */
+    @Override
+    public void collectAdjacentPrefetchPositions(final int dx, final int dy, @NonNull final RecyclerView.State state, @NonNull final LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        final int diff = HORIZONTAL == mOrientation ? dx : dy;
+        final int itemsCount = state.getItemCount();
+        if (0 == diff || 0 == getChildCount() || 0 == itemsCount || null == mDecoratedChildWidth || null == mDecoratedChildHeight) {
+            return;
+        }
+
+        final double currentScrollPosition = getCurrentScrollPosition();
+        //noinspection NumericCastThatLosesPrecision
+        final int centerItem = (int) Math.round(currentScrollPosition);
+        final int direction = 0 < diff ? 1 : -1;
+        final int scrollItemSize = getScrollItemSize();
+        final int maxVisibleItems = mLayoutHelper.mMaxVisibleItems;
+
+        for (int i = 1; i <= mPrefetchItemCount; ++i) {
+            int position = centerItem + direction * (maxVisibleItems + i);
+            if (mCircleLayout) {
+                if (maxVisibleItems * 2 + i >= itemsCount) {
+                    // all other items are already in layout
+                    return;
+                }
+                position %= itemsCount;
+                if (0 > position) {
+                    position += itemsCount;
+                }
+            } else if (0 > position || itemsCount <= position) {
+                return;
+            }
+
+            // this item enters layout when scroll position crosses the middle between centerItem + i - 1 and centerItem + i items
+            final double scrollDistance = Math.abs(centerItem + direction * (i - 0.5) - currentScrollPosition) * scrollItemSize;
+            //noinspection NumericCastThatLosesPrecision
+            layoutPrefetchRegistry.addPosition(position, (int) Math.round(scrollDistance));
+        }
+    }
+
+    /**
+     * Adds items that will be in the first layout: pending scroll position (or current center item) and up to {@link #getMaxVisibleItems()} items on each side.
+     */
+    @Override
+    public void collectInitialPrefetchPositions(final int adapterItemCount, @NonNull final LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        if (0 == adapterItemCount) {
+            return;
+        }
+        final int centerItem;
+        if (INVALID_POSITION != mPendingScrollPosition) {
+            centerItem = Math.min(adapterItemCount - 1, mPendingScrollPosition);
+        } else if (INVALID_POSITION != mCenterItemPosition) {
+            centerItem = Math.min(adapterItemCount - 1, mCenterItemPosition);
+        } else {
+            centerItem = 0;
+        }
+
+        layoutPrefetchRegistry.addPosition(centerItem, 0);
+        for (int i = 1; i <= mLayoutHelper.mMaxVisibleItems; ++i) {
+            if (mCircleLayout) {
+                // in circle layout items on both sides meet each other if adapter is small
+                if (i * 2 <= adapterItemCount) {
+                    layoutPrefetchRegistry.addPosition((centerItem + i) % adapterItemCount, 0);
+                }
+                if (i * 2 < adapterItemCount) {
+                    layoutPrefetchRegistry.addPosition((centerItem - i + adapterItemCount) % adapterItemCount, 0);
+                }
+            } else {
+                if (centerItem + i < adapterItemCount) {
+                    layoutPrefetchRegistry.addPosition(centerItem + i, 0);
+                }
+                if (0 <= centerItem - i) {
+                    layoutPrefetchRegistry.addPosition(centerItem - i, 0);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int computeHorizontalScrollOffset(@NonNull final RecyclerView.State state) {
+        return HORIZONTAL == mOrientation ? computeScrollOffset() : 0;
+    }
+
+    @Override
+    public int computeVerticalScrollOffset(@NonNull final RecyclerView.State state) {
+        return VERTICAL == mOrientation ? computeScrollOffset() : 0;
+    }
+
+    @Override
+    public int computeHorizontalScrollExtent(@NonNull final RecyclerView.State state) {
+        return HORIZONTAL == mOrientation ? computeScrollExtent() : 0;
+    }
+
+    @Override
+    public int computeVerticalScrollExtent(@NonNull final RecyclerView.State state) {
+        return VERTICAL == mOrientation ? computeScrollExtent() : 0;
+    }
+
+    @Override
+    public int computeHorizontalScrollRange(@NonNull final RecyclerView.State state) {
+        return HORIZONTAL == mOrientation ? computeScrollRange() : 0;
+    }
+
+    @Override
+    public int computeVerticalScrollRange(@NonNull final RecyclerView.State state) {
+        return VERTICAL == mOrientation ? computeScrollRange() : 0;
+    }
+
+    private int computeScrollOffset() {
+        if (0 == getChildCount() || null == mDecoratedChildWidth || null == mDecoratedChildHeight) {
+            return 0;
+        }
+        long scrollOffset = mLayoutHelper.mScrollOffset;
+        final long fullScrollSize = getFullScrollSize();
+        if (mCircleLayout && 0 < fullScrollSize) {
+            scrollOffset %= fullScrollSize;
+            if (0 > scrollOffset) {
+                scrollOffset += fullScrollSize;
+            }
+        }
+        return scaleScrollbarValue(scrollOffset);
+    }
+
+    private int computeScrollExtent() {
+        if (0 == getChildCount() || null == mDecoratedChildWidth || null == mDecoratedChildHeight) {
+            return 0;
+        }
+        return scaleScrollbarValue(getScrollItemSize());
+    }
+
+    private int computeScrollRange() {
+        if (0 == getChildCount() || null == mDecoratedChildWidth || null == mDecoratedChildHeight) {
+            return 0;
+        }
+        return scaleScrollbarValue(getScrollbarRange());
+    }
+
+    private long getScrollbarRange() {
+        return mCircleLayout ? getFullScrollSize() : getMaxScrollOffset() + getScrollItemSize();
+    }
+
+    /**
+     * Scrollbar values are int, but scroll range of huge adapters doesn't fit in it. So all scrollbar values are scaled down the same way.
+     */
+    private int scaleScrollbarValue(final long value) {
+        final long scale = getScrollbarRange() / Integer.MAX_VALUE + 1;
+        //noinspection NumericCastThatLosesPrecision
+        return (int) (value / scale);
+    }
+
     @Override
     public void onMeasure(@NonNull final RecyclerView.Recycler recycler, @NonNull final RecyclerView.State state, final int widthSpec, final int heightSpec) {
-        mDecoratedChildSizeInvalid = true;
+        // item size can be changed only if parent measure specs were changed
+        if (mLastWidthMeasureSpec != widthSpec || mLastHeightMeasureSpec != heightSpec) {
+            mLastWidthMeasureSpec = widthSpec;
+            mLastHeightMeasureSpec = heightSpec;
+            clearItemSizes();
+        }
 
         super.onMeasure(recycler, state, widthSpec, heightSpec);
     }
@@ -334,45 +1161,183 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
     public void onAdapterChanged(final RecyclerView.Adapter oldAdapter, final RecyclerView.Adapter newAdapter) {
         super.onAdapterChanged(oldAdapter, newAdapter);
 
+        mAdapter = newAdapter;
+        clearItemSizes();
+
         removeAllViews();
     }
 
+    @Override
+    public void onAttachedToWindow(final RecyclerView view) {
+        super.onAttachedToWindow(view);
+
+        mAdapter = view.getAdapter();
+    }
+
+    @Override
+    public void onItemsChanged(@NonNull final RecyclerView recyclerView) {
+        super.onItemsChanged(recyclerView);
+
+        // view types of items could be changed, but sizes of view types stay the same
+        mDecoratedChildSizeInvalid = true;
+        if (mVariableItemSize) {
+            // all items could be changed, so their sizes should be measured again
+            mItemSizeIndex.reset(0, 0);
+        }
+    }
+
+    @Override
+    public void onItemsAdded(@NonNull final RecyclerView recyclerView, final int positionStart, final int itemCount) {
+        super.onItemsAdded(recyclerView, positionStart, itemCount);
+
+        if (mVariableItemSize) {
+            mItemSizeIndex.onItemsAdded(positionStart, itemCount);
+        }
+    }
+
+    @Override
+    public void onItemsRemoved(@NonNull final RecyclerView recyclerView, final int positionStart, final int itemCount) {
+        super.onItemsRemoved(recyclerView, positionStart, itemCount);
+
+        if (mVariableItemSize) {
+            mItemSizeIndex.onItemsRemoved(positionStart, itemCount);
+        }
+    }
+
+    @Override
+    public void onItemsMoved(@NonNull final RecyclerView recyclerView, final int from, final int to, final int itemCount) {
+        super.onItemsMoved(recyclerView, from, to, itemCount);
+
+        if (mVariableItemSize) {
+            mItemSizeIndex.onItemsMoved(from, to, itemCount);
+        }
+    }
+
+    /**
+     * Drops cached item sizes, so they are measured again on the next layout. <br />
+     * <br />
+     * Sizes are cached by item view type and are dropped automatically when parent measure specs, adapter or item decorations are changed.
+     * Call this method if item size is changed for other reasons.
+     */
+    @SuppressWarnings("unused")
+    public void invalidateItemSizes() {
+        clearItemSizes();
+        requestLayout();
+    }
+
+    private void clearItemSizes() {
+        mDecoratedChildWidths.clear();
+        mDecoratedChildHeights.clear();
+        mDecoratedChildSizeInvalid = true;
+    }
+
+    /**
+     * Measures one scrapped child of every cached view type and compares its size with the cached one.
+     * Item decorations and insets can be changed without parent measure spec change, so this is the place where such changes are found. <br />
+     * <br />
+     * All children are measured again in every layout pass anyway, and children measured here are not measured again in this pass,
+     * so this check costs nothing. It is not done in variable item size mode, where items of one view type have different sizes.
+     *
+     * @return false if cached size of some view type doesn't match its child size
+     */
+    private boolean checkCachedItemSizes(@NonNull final RecyclerView.Recycler recycler) {
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = 0, size = scrapList.size(); i < size; ++i) {
+            final View view = scrapList.get(i).itemView;
+            final int viewType = getItemViewType(view);
+            if (0 > mDecoratedChildWidths.indexOfKey(viewType) || mMeasureGeneration == mCheckedViewTypeGenerations.get(viewType, mMeasureGeneration - 1)) {
+                continue;
+            }
+            mCheckedViewTypeGenerations.put(viewType, mMeasureGeneration);
+
+            measureChild(view, getPosition(view));
+            if (mDecoratedChildWidths.get(viewType) != getDecoratedMeasuredWidth(view)
+                    || mDecoratedChildHeights.get(viewType) != getDecoratedMeasuredHeight(view)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Item animations are supported only if {@link #setPropertyTransformEnabled(boolean)} is disabled,
+     * because in that mode translation of children is owned by this LayoutManager, not by item animator.
+     */
+    @Override
+    public boolean supportsPredictiveItemAnimations() {
+        return !mPropertyTransformEnabled;
+    }
+
     @SuppressWarnings("RefusedBequest")
     @Override
     @CallSuper
     public void onLayoutChildren(@NonNull final RecyclerView.Recycler recycler, @NonNull final RecyclerView.State state) {
+        finishLayoutPlanning();
         if (0 == state.getItemCount()) {
             removeAndRecycleAllViews(recycler);
             selectItemCenterPosition(INVALID_POSITION);
             return;
         }
 
+        int anchorItemPosition = INVALID_POSITION;
+        if (!state.isPreLayout() && state.didStructureChange() && 0 != getChildCount()) {
+            // center item is always the last child. its position is already updated by adapter changes, so it keeps its place in layout
+            final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) getChildAt(getChildCount() - 1).getLayoutParams();
+            if (!lp.isItemRemoved()) {
+                anchorItemPosition = lp.getViewLayoutPosition();
+            }
+        }
+
         detachAndScrapAttachedViews(recycler);
+        // layout pass can be caused by item decorations or data change, so all children should be measured again
+        ++mMeasureGeneration;
+        ++mPropertyGeneration;
 
+        if (null != mDecoratedChildWidth && !mDecoratedChildSizeInvalid && !mVariableItemSize && !checkCachedItemSizes(recycler)) {
+            clearItemSizes();
+        }
         if (null == mDecoratedChildWidth || mDecoratedChildSizeInvalid) {
             final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
-
-            final boolean shouldRecycle;
-            final View view;
-            if (scrapList.isEmpty()) {
-                shouldRecycle = true;
-                final int itemsCount = state.getItemCount();
-                view = recycler.getViewForPosition(
-                        mPendingScrollPosition == INVALID_POSITION ?
-                                0 :
-                                Math.max(0, Math.min(itemsCount - 1, mPendingScrollPosition))
-                );
-                addView(view);
+            final int itemsCount = state.getItemCount();
+            final int referencePosition = mPendingScrollPosition == INVALID_POSITION ?
+                    0 :
+                    Math.max(0, Math.min(itemsCount - 1, mPendingScrollPosition));
+
+            final int viewType;
+            if (!scrapList.isEmpty()) {
+                viewType = getItemViewType(scrapList.get(0).itemView);
+            } else if (null != mAdapter && referencePosition < mAdapter.getItemCount()) {
+                viewType = mAdapter.getItemViewType(referencePosition);
             } else {
-                shouldRecycle = false;
-                view = scrapList.get(0).itemView;
+                viewType = INVALID_VIEW_TYPE;
             }
-            measureChildWithMargins(view, 0, 0);
 
-            final int decoratedChildWidth = getDecoratedMeasuredWidth(view);
-            final int decoratedChildHeight = getDecoratedMeasuredHeight(view);
-            if (shouldRecycle) {
-                detachAndScrapView(view, recycler);
+            final int decoratedChildWidth;
+            final int decoratedChildHeight;
+            if (INVALID_VIEW_TYPE != viewType && 0 <= mDecoratedChildWidths.indexOfKey(viewType)) {
+                decoratedChildWidth = mDecoratedChildWidths.get(viewType);
+                decoratedChildHeight = mDecoratedChildHeights.get(viewType);
+            } else {
+                final boolean shouldRecycle;
+                final View view;
+                if (scrapList.isEmpty()) {
+                    shouldRecycle = true;
+                    view = recycler.getViewForPosition(referencePosition);
+                    addView(view);
+                } else {
+                    shouldRecycle = false;
+                    view = scrapList.get(0).itemView;
+                }
+                measureChild(view, getPosition(view));
+
+                decoratedChildWidth = getDecoratedMeasuredWidth(view);
+                decoratedChildHeight = getDecoratedMeasuredHeight(view);
+                final int measuredViewType = getItemViewType(view);
+                mDecoratedChildWidths.put(measuredViewType, decoratedChildWidth);
+                mDecoratedChildHeights.put(measuredViewType, decoratedChildHeight);
+                if (shouldRecycle) {
+                    detachAndScrapView(view, recycler);
+                }
             }
 
             if (null != mDecoratedChildWidth && (mDecoratedChildWidth != decoratedChildWidth || mDecoratedChildHeight != decoratedChildHeight)) {
@@ -385,7 +1350,28 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
             mDecoratedChildHeight = decoratedChildHeight;
             mDecoratedChildSizeInvalid = false;
         }
+        updateCardOffsetDimen();
+        // measured sizes are moved by adapter changes before layout, so pre layout with old item count keeps them
+        if (mVariableItemSize && ((state.isPreLayout() ? 0 == mItemSizeIndex.getCount() : state.getItemCount() != mItemSizeIndex.getCount())
+                || getScrollItemSize() != mItemSizeIndex.getDefaultSize())) {
+            mItemSizeIndex.reset(state.getItemCount(), getScrollItemSize());
+        }
+
+        // pre layout uses item positions before adapter changes, so pending scroll is applied only in the real layout pass
+        if (!state.isPreLayout()) {
+            applyPendingScroll(state, anchorItemPosition);
+        }
 
+        fillData(recycler, state);
+    }
+
+    /**
+     * Moves layout to pending scroll position, saved state or anchor item. Should be called only in the real layout pass,
+     * because all positions are adapter positions after adapter changes.
+     *
+     * @param anchorItemPosition position of item that should stay in the center after adapter changes or {@link #INVALID_POSITION}
+     */
+    private void applyPendingScroll(@NonNull final RecyclerView.State state, final int anchorItemPosition) {
         if (INVALID_POSITION != mPendingScrollPosition) {
             final int itemsCount = state.getItemCount();
             mPendingScrollPosition = 0 == itemsCount ? INVALID_POSITION : Math.max(0, Math.min(itemsCount - 1, mPendingScrollPosition));
@@ -397,110 +1383,731 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         } else if (null != mPendingCarouselSavedState) {
             mLayoutHelper.mScrollOffset = calculateScrollForSelectingPosition(mPendingCarouselSavedState.mCenterItemPosition, state);
             mPendingCarouselSavedState = null;
+        } else if (INVALID_POSITION != anchorItemPosition) {
+            mLayoutHelper.mScrollOffset = calculateScrollForSelectingPosition(anchorItemPosition, state);
         } else if (state.didStructureChange() && INVALID_POSITION != mCenterItemPosition) {
             mLayoutHelper.mScrollOffset = calculateScrollForSelectingPosition(mCenterItemPosition, state);
         }
+    }
+
+    /**
+     * Recalculates size of area above center item. This value is changed only if layout or item size was changed,
+     * so it is calculated once per layout and reused during scroll.
+     */
+    private void updateCardOffsetDimen() {
+        final int cardOffsetDimen;
+        if (VERTICAL == mOrientation) {
+            cardOffsetDimen = (getHeightNoPadding() - mDecoratedChildHeight) / 2;
+        } else {
+            cardOffsetDimen = (getWidthNoPadding() - mDecoratedChildWidth) / 2;
+        }
+        if (mCardOffsetDimen != cardOffsetDimen) {
+            mCardOffsetDimen = cardOffsetDimen;
+            mOffsetCurve.onLayoutChanged(mLayoutHelper.mMaxVisibleItems, cardOffsetDimen);
+        }
+    }
+
+    private long calculateScrollForSelectingPosition(final int itemPosition, final RecyclerView.State state) {
+        if (itemPosition == INVALID_POSITION) {
+            return 0;
+        }
+
+        final int fixedItemPosition = itemPosition < state.getItemCount() ? itemPosition : state.getItemCount() - 1;
+        return getScrollOffsetForPosition(fixedItemPosition);
+    }
+
+    /**
+     * @param itemPosition item position. in circle layout it can be out of [0, count) range, then it means item position in other circle turn
+     * @return scroll offset that makes this item the center one
+     */
+    private long getScrollOffsetForPosition(final long itemPosition) {
+        if (!mVariableItemSize) {
+            return itemPosition * getScrollItemSize();
+        }
+        final int itemsCount = mItemSizeIndex.getCount();
+        if (0 == itemsCount) {
+            return 0;
+        }
+        long turns = itemPosition / itemsCount;
+        long position = itemPosition % itemsCount;
+        if (0 > position) {
+            position += itemsCount;
+            --turns;
+        }
+        //noinspection NumericCastThatLosesPrecision
+        return turns * mItemSizeIndex.getTotalSize() + mItemSizeIndex.getOffset((int) position);
+    }
+
+    /**
+     * @return scroll size of all items. this is a scroll size of one full turn for circle layout
+     */
+    private long getFullScrollSize() {
+        if (mVariableItemSize) {
+            return mItemSizeIndex.getTotalSize();
+        }
+        return (long) getScrollItemSize() * mItemsCount;
+    }
+
+    private void fillData(@NonNull final RecyclerView.Recycler recycler, @NonNull final RecyclerView.State state) {
+        final LayoutMetrics metrics = null == mOnLayoutMetricsListener ? null : mLayoutMetrics;
+        long time = 0;
+        if (null != metrics) {
+            metrics.reset();
+            time = System.nanoTime();
+        }
+        mActiveLayoutMetrics = metrics;
+
+        double currentScrollPosition = getCurrentScrollPosition();
+        // scrap should be kept for RecyclerView if item animations will run
+        final boolean predictiveLayout = state.isPreLayout() || state.willRunPredictiveAnimations();
+
+        FramePlan plan = null;
+        if (null != mLayoutPlanner && !predictiveLayout && setLayoutPlanRequest(mLayoutHelper.mScrollOffset, state.getItemCount())) {
+            plan = mLayoutPlanner.getPlan(mLayoutPlanRequest);
+            mLayoutPlanRequest.mSampleChild = null;
+        }
+        if (null != plan) {
+            // planner did the same calculations for this scroll offset
+            mItemsCount = state.getItemCount();
+            mLayoutHelper.setLayoutOrder(plan.mLayoutHelper);
+            mTransformBatch.set(plan.mBatch);
+            mListenerTransformPlanned = null != plan.mPostLayoutListener;
+        } else {
+            generateLayoutOrder(currentScrollPosition, state.isPreLayout() ? getRemovedScrapCount(recycler) : 0, state);
+            initTransformBatch();
+            if (null != mGeometry) {
+                mGeometry.transformItems(mTransformBatch);
+            }
+        }
+        if (mOcclusionCullingEnabled && !predictiveLayout && !mVariableItemSize) {
+            final int culledCount = cullOccludedItems(recycler);
+            if (null != metrics) {
+                metrics.onItemsCulled(culledCount);
+            }
+        }
+        if (null != metrics) {
+            time = recordLayoutPhase(metrics, LayoutMetrics.PHASE_LAYOUT_ORDER, time);
+        }
+        if (mIncrementalLayoutEnabled) {
+            collectAttachedViews(recycler);
+        } else {
+            detachAndScrapAttachedViews(recycler);
+        }
+        if (!predictiveLayout) {
+            recyclerOldViews(recycler);
+        }
+        if (null != metrics) {
+            time = recordLayoutPhase(metrics, LayoutMetrics.PHASE_RECYCLE, time);
+        }
+
+        // size index uses adapter positions after adapter changes, so pre layout positions can't update it
+        mItemSizeUpdatesEnabled = mVariableItemSize && !state.isPreLayout();
+        mItemSizesChanged = false;
+        bindChildren(recycler);
+        if (mItemSizesChanged) {
+            // offsets were calculated with not measured sizes, so layout order is calculated again with sizes of bound items
+            currentScrollPosition = getCurrentScrollPosition();
+            generateLayoutOrder(currentScrollPosition, 0, state);
+            initTransformBatch();
+            if (null != mGeometry) {
+                mGeometry.transformItems(mTransformBatch);
+            }
+            collectAttachedViews(recycler);
+            bindChildren(recycler);
+        }
+        if (null != metrics) {
+            time = recordLayoutPhase(metrics, LayoutMetrics.PHASE_BIND, time);
+        }
+        // geometry transformations are calculated before binding, listener needs bound children
+        final boolean batchTransformed = null != mGeometry
+                || !mListenerTransformPlanned && null != mViewPostLayout && mViewPostLayout.transformChildren(mTransformBatch);
+        final int width = getWidthNoPadding();
+        final int height = getHeightNoPadding();
+        if (VERTICAL == mOrientation) {
+            fillDataVertical(width, height, batchTransformed);
+        } else {
+            fillDataHorizontal(width, height, batchTransformed);
+        }
+        mListenerTransformPlanned = false;
+        mTransformBatch.clearChildren();
+        if (null != metrics) {
+            time = recordLayoutPhase(metrics, LayoutMetrics.PHASE_TRANSFORM, time);
+        }
+        mAttachedViews.clear();
+        if (!predictiveLayout) {
+            recycler.clear();
+        } else if (!state.isPreLayout()) {
+            layoutDisappearingViews(recycler, currentScrollPosition);
+        }
+        mActiveLayoutMetrics = null;
+        if (null != metrics) {
+            recordLayoutPhase(metrics, LayoutMetrics.PHASE_RECYCLE, time);
+        }
+
+        if (!state.isPreLayout()) {
+            detectOnItemSelectionChanged(currentScrollPosition, state);
+        }
+        if (null != metrics) {
+            mOnLayoutMetricsListener.onLayoutMetrics(metrics);
+        }
+    }
+
+    /**
+     * Copies layout order to {@link #mTransformBatch}, so transformations of all items can be calculated at once.
+     */
+    private void initTransformBatch() {
+        final ItemTransformationBatch batch = mTransformBatch;
+        final int count = mLayoutHelper.mLayoutCount;
+        batch.init(count, mOrientation, mLayoutHelper.mMaxVisibleItems, mDecoratedChildWidth, mDecoratedChildHeight, mCardOffsetDimen);
+        System.arraycopy(mLayoutHelper.mItemAdapterPositions, 0, batch.mItemAdapterPositions, 0, count);
+        System.arraycopy(mLayoutHelper.mItemPositionDiffs, 0, batch.mItemPositionDiffs, 0, count);
+    }
+
+    /**
+     * Removes items that are hidden behind items drawn over them from layout order.
+     *
+     * @return count of removed items
+     * @see #setOcclusionCullingEnabled(boolean)
+     */
+    @SuppressWarnings("FloatingPointEquality")
+    private int cullOccludedItems(@NonNull final RecyclerView.Recycler recycler) {
+        final PostLayoutListener postLayoutListener = mViewPostLayout;
+        View sampleChild = null;
+        if (null == mGeometry && null != postLayoutListener && !mListenerTransformPlanned) {
+            if (!postLayoutListener.isPure()) {
+                return 0;
+            }
+            // pure listener transformation depends only on child size, and all children have the same size here
+            sampleChild = getSampleChild(recycler);
+            if (null == sampleChild) {
+                return 0;
+            }
+        }
+
+        final int childWidth = mDecoratedChildWidth;
+        final int childHeight = mDecoratedChildHeight;
+        final float layoutCenterX = (getWidthNoPadding() - childWidth) / 2 + childWidth / 2.0f;
+        final float layoutCenterY = (getHeightNoPadding() - childHeight) / 2 + childHeight / 2.0f;
+
+        final OcclusionCuller culler = mOcclusionCuller;
+        final int count = mLayoutHelper.mLayoutCount;
+        culler.init(count);
+        final int[] itemAdapterPositions = mLayoutHelper.mItemAdapterPositions;
+        final float[] itemPositionDiffs = mLayoutHelper.mItemPositionDiffs;
+        final ItemTransformation transformation = mItemTransformation;
+        for (int i = 0; i < count; ++i) {
+            final float itemPositionDiff = itemPositionDiffs[i];
+            final int offset = null == mGeometry ? getCardOffsetByPositionDiff(itemPositionDiff) : 0;
+            float centerX = VERTICAL == mOrientation ? layoutCenterX : layoutCenterX + offset;
+            float centerY = VERTICAL == mOrientation ? layoutCenterY + offset : layoutCenterY;
+            float halfWidth = childWidth / 2.0f;
+            float halfHeight = childHeight / 2.0f;
+            boolean opaque = true;
+            // center item is drawn over all other items
+            boolean cullable = i != count - 1;
+            boolean transformed = false;
+            if (null != mGeometry) {
+                mTransformBatch.getTransformation(i, transformation);
+                transformed = true;
+            } else if (mListenerTransformPlanned) {
+                transformed = mTransformBatch.mTransformed[i];
+                if (transformed) {
+                    mTransformBatch.getTransformation(i, transformation);
+                }
+            } else if (null != sampleChild) {
+                transformed = postLayoutListener.transformChild(sampleChild, itemPositionDiff, mOrientation, itemAdapterPositions[i], transformation);
+            }
+            if (transformed) {
+                centerX += transformation.mTranslationX;
+                centerY += transformation.mTranslationY;
+                halfWidth *= Math.abs(transformation.mScaleX);
+                halfHeight *= Math.abs(transformation.mScaleY);
+                if (0 != transformation.mRotation || 0 != transformation.mRotationX || 0 != transformation.mRotationY) {
+                    opaque = false;
+                    cullable = false;
+                } else if (1.0f > transformation.mAlpha) {
+                    opaque = false;
+                }
+            }
+            if (VERTICAL == mOrientation) {
+                culler.setItem(i, centerY - halfHeight, centerY + halfHeight, centerX - halfWidth, centerX + halfWidth, opaque, cullable);
+            } else {
+                culler.setItem(i, centerX - halfWidth, centerX + halfWidth, centerY - halfHeight, centerY + halfHeight, opaque, cullable);
+            }
+        }
+
+        final int culledCount = culler.cull(mOcclusionVisibleThreshold);
+        if (0 != culledCount) {
+            mLayoutHelper.removeLayoutOrder(culler.mCulled);
+            mTransformBatch.removeItems(culler.mCulled);
+        }
+        return culledCount;
+    }
+
+    /**
+     * @return any measured child: attached one during scroll or scrapped one during layout pass, when all children are already scrapped
+     */
+    @Nullable
+    private View getSampleChild(@NonNull final RecyclerView.Recycler recycler) {
+        final int childCount = getChildCount();
+        if (0 != childCount) {
+            return getChildAt(childCount - 1);
+        }
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        return scrapList.isEmpty() ? null : scrapList.get(0).itemView;
+    }
+
+    /**
+     * @return count of scrapped views which items were removed from adapter
+     */
+    private static int getRemovedScrapCount(@NonNull final RecyclerView.Recycler recycler) {
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        int removedCount = 0;
+        for (int i = 0, size = scrapList.size(); i < size; ++i) {
+            final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) scrapList.get(i).itemView.getLayoutParams();
+            if (lp.isItemRemoved()) {
+                ++removedCount;
+            }
+        }
+        return removedCount;
+    }
+
+    /**
+     * Called in post layout if item animations will run. Views that were in pre layout and are not in layout any more
+     * are laid out at their new positions out of layout window, so item animator moves them there. <br />
+     * <br />
+     * Views which items were removed stay in scrap, RecyclerView animates their removal itself.
+     */
+    private void layoutDisappearingViews(@NonNull final RecyclerView.Recycler recycler, final double currentScrollPosition) {
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        if (scrapList.isEmpty()) {
+            return;
+        }
+        final double absCurrentScrollPosition = LayoutHelper.makeScrollPositionInRange0ToCount(currentScrollPosition, mItemsCount);
+        final int width = getWidthNoPadding();
+        final int height = getHeightNoPadding();
+
+        final ItemTransformationBatch batch = null == mGeometry && null == mViewPostLayout ? null : mTransformBatch;
+        boolean batchTransformed = false;
+        if (null != batch) {
+            // layout order is already laid out, so batch is reused for disappearing views in the same order as they are laid out bellow
+            batch.init(scrapList.size() - getRemovedScrapCount(recycler), mOrientation, mLayoutHelper.mMaxVisibleItems,
+                    mDecoratedChildWidth, mDecoratedChildHeight, mCardOffsetDimen);
+            int index = 0;
+            for (int i = scrapList.size() - 1; 0 <= i; --i) {
+                final View view = scrapList.get(i).itemView;
+                final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+                if (!lp.isItemRemoved()) {
+                    final int position = lp.getViewLayoutPosition();
+                    batch.setItem(index, position, getDisappearingItemPositionDiff(position, absCurrentScrollPosition));
+                    batch.mChildren[index] = view;
+                    ++index;
+                }
+            }
+            if (null != mGeometry) {
+                mGeometry.transformItems(batch);
+                batchTransformed = true;
+            } else {
+                batchTransformed = mViewPostLayout.transformChildren(batch);
+            }
+        }
+
+        int index = 0;
+        // addDisappearingView removes view holder from scrap list, so we go from the end of it
+        for (int i = scrapList.size() - 1; 0 <= i; --i) {
+            final View view = scrapList.get(i).itemView;
+            final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) view.getLayoutParams();
+            if (lp.isItemRemoved()) {
+                continue;
+            }
+            final int position = lp.getViewLayoutPosition();
+            final float diff = getDisappearingItemPositionDiff(position, absCurrentScrollPosition);
+            final int offset = null == mGeometry ? getCardOffsetByPositionDiff(diff) : 0;
+            final int transformIndex = batchTransformed ? index : INVALID_POSITION;
+            ++index;
+
+            addDisappearingView(view, 0);
+            if (VERTICAL == mOrientation) {
+                final int start = (width - mDecoratedChildWidth) / 2;
+                final int top = (height - mDecoratedChildHeight) / 2 + offset;
+                layoutChild(view, start, top, start + mDecoratedChildWidth, top + mDecoratedChildHeight, offset, position, diff, 0, transformIndex);
+            } else {
+                final int start = (width - mDecoratedChildWidth) / 2 + offset;
+                final int top = (height - mDecoratedChildHeight) / 2;
+                layoutChild(view, start, top, start + mDecoratedChildWidth, top + mDecoratedChildHeight, offset, position, diff, 0, transformIndex);
+            }
+        }
+        if (null != batch) {
+            batch.clearChildren();
+        }
+    }
+
+    private float getDisappearingItemPositionDiff(final int position, final double absCurrentScrollPosition) {
+        double itemPositionDiff = position - absCurrentScrollPosition;
+        if (mCircleLayout && 0 < mItemsCount) {
+            // item goes the shortest way around the circle
+            itemPositionDiff -= Math.round(itemPositionDiff / mItemsCount) * mItemsCount;
+        }
+        //noinspection NumericCastThatLosesPrecision
+        return (float) itemPositionDiff;
+    }
+
+    /**
+     * Adds time from startTime till now to the phase.
+     *
+     * @return current time, so it can be used as start time of the next phase
+     */
+    private static long recordLayoutPhase(@NonNull final LayoutMetrics metrics, final int phase, final long startTime) {
+        final long now = System.nanoTime();
+        metrics.addPhaseNanos(phase, now - startTime);
+        return now;
+    }
+
+    private void detectOnItemSelectionChanged(final double currentScrollPosition, final RecyclerView.State state) {
+        final double absCurrentScrollPosition = LayoutHelper.makeScrollPositionInRange0ToCount(currentScrollPosition, state.getItemCount());
+        //noinspection NumericCastThatLosesPrecision
+        final int centerItem = (int) Math.round(absCurrentScrollPosition);
+
+        if (mCenterItemPosition != centerItem) {
+            mCenterItemPosition = centerItem;
+            if (mCenterItemChangeCoalescingEnabled) {
+                postCenterItemDispatch();
+            } else {
+                getMainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        selectItemCenterPosition(centerItem);
+                    }
+                });
+                if (RecyclerView.SCROLL_STATE_IDLE == mScrollState) {
+                    postCenterItemDispatch();
+                }
+            }
+        }
+    }
 
-        fillData(recycler, state);
+    @NonNull
+    private Handler getMainHandler() {
+        if (null == mMainHandler) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return mMainHandler;
     }
 
-    private int calculateScrollForSelectingPosition(final int itemPosition, final RecyclerView.State state) {
-        if (itemPosition == INVALID_POSITION) {
-            return 0;
+    /**
+     * Posts {@link #mCenterItemDispatcher} if it is not already pending, so all changes until it runs are coalesced.
+     */
+    private void postCenterItemDispatch() {
+        if (!mCenterItemDispatchPending) {
+            mCenterItemDispatchPending = true;
+            getMainHandler().post(mCenterItemDispatcher);
         }
+    }
 
-        final int fixedItemPosition = itemPosition < state.getItemCount() ? itemPosition : state.getItemCount() - 1;
-        return fixedItemPosition * (VERTICAL == mOrientation ? mDecoratedChildHeight : mDecoratedChildWidth);
+    /**
+     * Notifies coalesced center item change (if this mode is enabled) and settled center item if scroll is idle.
+     * Listeners receive the current center item, not the one that was at the post time.
+     */
+    private void dispatchCenterItem() {
+        mCenterItemDispatchPending = false;
+        final int centerItem = mCenterItemPosition;
+        if (mCenterItemChangeCoalescingEnabled && mDispatchedCenterItemPosition != centerItem) {
+            mDispatchedCenterItemPosition = centerItem;
+            selectItemCenterPosition(centerItem);
+        }
+        if (RecyclerView.SCROLL_STATE_IDLE == mScrollState && mSettledCenterItemPosition != centerItem) {
+            mSettledCenterItemPosition = centerItem;
+            for (int i = 0, size = mOnCenterItemSettledListeners.size(); i < size; ++i) {
+                mOnCenterItemSettledListeners.get(i).onCenterItemSettled(centerItem);
+            }
+        }
     }
 
-    private void fillData(@NonNull final RecyclerView.Recycler recycler, @NonNull final RecyclerView.State state) {
-        final float currentScrollPosition = getCurrentScrollPosition();
+    private void selectItemCenterPosition(final int centerItem) {
+        for (int i = 0, size = mOnCenterItemSelectionListeners.size(); i < size; ++i) {
+            mOnCenterItemSelectionListeners.get(i).onCenterItemChanged(centerItem);
+        }
+    }
 
-        generateLayoutOrder(currentScrollPosition, state);
-        detachAndScrapAttachedViews(recycler);
-        recyclerOldViews(recycler);
+    @Override
+    public void onScrollStateChanged(final int state) {
+        super.onScrollStateChanged(state);
 
-        final int width = getWidthNoPadding();
-        final int height = getHeightNoPadding();
-        if (VERTICAL == mOrientation) {
-            fillDataVertical(recycler, width, height);
-        } else {
-            fillDataHorizontal(recycler, width, height);
+        mScrollState = state;
+        if (RecyclerView.SCROLL_STATE_IDLE == state) {
+            mLastScrollDiff = 0;
+            postCenterItemDispatch();
         }
+        if (mHardwareLayersDuringScrollEnabled) {
+            updateChildrenLayerType();
+        }
+    }
 
-        recycler.clear();
+    private void updateChildrenLayerType() {
+        for (int i = 0, count = getChildCount(); i < count; ++i) {
+            updateChildLayerType(getChildAt(i));
+        }
+    }
 
-        detectOnItemSelectionChanged(currentScrollPosition, state);
+    /**
+     * Promotes child to hardware layer during scroll and drops this layer when scroll is idle.
+     * Should be called only if {@link #mHardwareLayersDuringScrollEnabled} is true.
+     */
+    private void updateChildLayerType(@NonNull final View child) {
+        final int layerType = child.getLayerType();
+        if (RecyclerView.SCROLL_STATE_IDLE != mScrollState) {
+            if (View.LAYER_TYPE_NONE == layerType) {
+                child.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        } else if (View.LAYER_TYPE_HARDWARE == layerType) {
+            child.setLayerType(View.LAYER_TYPE_NONE, null);
+        }
     }
 
-    private void detectOnItemSelectionChanged(final float currentScrollPosition, final RecyclerView.State state) {
-        final float absCurrentScrollPosition = makeScrollPositionInRange0ToCount(currentScrollPosition, state.getItemCount());
-        final int centerItem = Math.round(absCurrentScrollPosition);
+    @Override
+    public void onDetachedFromWindow(final RecyclerView view, final RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
 
-        if (mCenterItemPosition != centerItem) {
-            mCenterItemPosition = centerItem;
-            new Handler(Looper.getMainLooper()).post(new Runnable() {
-                @Override
-                public void run() {
-                    selectItemCenterPosition(centerItem);
-                }
-            });
+        if (null != mMainHandler) {
+            mMainHandler.removeCallbacks(mCenterItemDispatcher);
         }
+        mCenterItemDispatchPending = false;
+        mScrollState = RecyclerView.SCROLL_STATE_IDLE;
+        finishLayoutPlanning();
     }
 
-    private void selectItemCenterPosition(final int centerItem) {
-        for (final OnCenterItemSelectionListener onCenterItemSelectionListener : mOnCenterItemSelectionListeners) {
-            onCenterItemSelectionListener.onCenterItemChanged(centerItem);
+    /**
+     * Gets children of all items in layout order from attached views or from recycler and puts them to {@link #mTransformBatch}.
+     */
+    private void bindChildren(@NonNull final RecyclerView.Recycler recycler) {
+        final View[] children = mTransformBatch.mChildren;
+        final int[] itemAdapterPositions = mLayoutHelper.mItemAdapterPositions;
+        for (int i = 0, count = mLayoutHelper.mLayoutCount; i < count; ++i) {
+            children[i] = bindChild(itemAdapterPositions[i], recycler, i);
         }
     }
 
-    private void fillDataVertical(final RecyclerView.Recycler recycler, final int width, final int height) {
+    private void fillDataVertical(final int width, final int height, final boolean batchTransformed) {
         final int start = (width - mDecoratedChildWidth) / 2;
         final int end = start + mDecoratedChildWidth;
 
         final int centerViewTop = (height - mDecoratedChildHeight) / 2;
 
-        for (int i = 0, count = mLayoutHelper.mLayoutOrder.length; i < count; ++i) {
-            final LayoutOrder layoutOrder = mLayoutHelper.mLayoutOrder[i];
-            final int offset = getCardOffsetByPositionDiff(layoutOrder.mItemPositionDiff);
+        final View[] children = mTransformBatch.mChildren;
+        final int[] itemAdapterPositions = mLayoutHelper.mItemAdapterPositions;
+        final float[] itemPositionDiffs = mLayoutHelper.mItemPositionDiffs;
+        for (int i = 0, count = mLayoutHelper.mLayoutCount; i < count; ++i) {
+            final float itemPositionDiff = itemPositionDiffs[i];
+            final int offset = null == mGeometry ? getCardOffsetByPositionDiff(itemPositionDiff) : 0;
             final int top = centerViewTop + offset;
             final int bottom = top + mDecoratedChildHeight;
-            fillChildItem(start, top, end, bottom, layoutOrder, recycler, i);
+            layoutChild(children[i], start, top, end, bottom, offset, itemAdapterPositions[i], itemPositionDiff, i, batchTransformed ? i : INVALID_POSITION);
         }
     }
 
-    private void fillDataHorizontal(final RecyclerView.Recycler recycler, final int width, final int height) {
+    private void fillDataHorizontal(final int width, final int height, final boolean batchTransformed) {
         final int top = (height - mDecoratedChildHeight) / 2;
         final int bottom = top + mDecoratedChildHeight;
 
         final int centerViewStart = (width - mDecoratedChildWidth) / 2;
 
-        for (int i = 0, count = mLayoutHelper.mLayoutOrder.length; i < count; ++i) {
-            final LayoutOrder layoutOrder = mLayoutHelper.mLayoutOrder[i];
-            final int offset = getCardOffsetByPositionDiff(layoutOrder.mItemPositionDiff);
+        final View[] children = mTransformBatch.mChildren;
+        final int[] itemAdapterPositions = mLayoutHelper.mItemAdapterPositions;
+        final float[] itemPositionDiffs = mLayoutHelper.mItemPositionDiffs;
+        for (int i = 0, count = mLayoutHelper.mLayoutCount; i < count; ++i) {
+            final float itemPositionDiff = itemPositionDiffs[i];
+            final int offset = null == mGeometry ? getCardOffsetByPositionDiff(itemPositionDiff) : 0;
             final int start = centerViewStart + offset;
             final int end = start + mDecoratedChildWidth;
-            fillChildItem(start, top, end, bottom, layoutOrder, recycler, i);
+            layoutChild(children[i], start, top, end, bottom, offset, itemAdapterPositions[i], itemPositionDiff, i, batchTransformed ? i : INVALID_POSITION);
         }
     }
 
 
-    @SuppressWarnings("MethodWithTooManyParameters")
-    private void fillChildItem(final int start, final int top, final int end, final int bottom, @NonNull final LayoutOrder layoutOrder, @NonNull final RecyclerView.Recycler recycler, final int i) {
-        final View view = bindChild(layoutOrder.mItemAdapterPosition, recycler);
-        ViewCompat.setElevation(view, i);
-        ItemTransformation transformation = null;
-        if (null != mViewPostLayout) {
-            transformation = mViewPostLayout.transformChild(view, layoutOrder.mItemPositionDiff, mOrientation, layoutOrder.mItemAdapterPosition);
+    /**
+     * Lays out child and applies {@link PostLayoutListener} or {@link CarouselGeometry} transformation to it.
+     *
+     * @param offset         card offset from the layout center that is already added to bounds
+     * @param zPosition      child z position in layout order. center item has the biggest one
+     * @param transformIndex index of child transformation in {@link #mTransformBatch} or {@link #INVALID_POSITION} if it should be calculated here
+     */
+    @SuppressWarnings({"MethodWithTooManyParameters", "AssignmentToMethodParameter"})
+    private void layoutChild(@NonNull final View view, int start, int top, int end, int bottom, final int offset,
+                             final int itemAdapterPosition, final float itemPositionDiff, final int zPosition, final int transformIndex) {
+        if (mVariableItemSize) {
+            // item with its own size has the same center as fixed size item would have
+            final int width = getDecoratedMeasuredWidth(view);
+            final int height = getDecoratedMeasuredHeight(view);
+            start += (end - start - width) / 2;
+            top += (bottom - top - height) / 2;
+            end = start + width;
+            bottom = top + height;
+        }
+        final LayoutParams lp = getPropertyCache(view);
+        if (Z_ORDER_ELEVATION == mZOrderStrategy) {
+            setChildElevation(view, lp, zPosition);
         }
-        if (null == transformation) {
+        final ItemTransformation transformation = mItemTransformation;
+        boolean transformed = false;
+        if (INVALID_POSITION != transformIndex) {
+            mTransformBatch.getTransformation(transformIndex, transformation);
+            transformed = true;
+        } else if (mListenerTransformPlanned) {
+            // pure listener transformation was calculated by layout planner, child index is its index in batch
+            transformed = mTransformBatch.mTransformed[zPosition];
+            if (transformed) {
+                mTransformBatch.getTransformation(zPosition, transformation);
+            }
+        } else if (null != mViewPostLayout) {
+            transformed = mViewPostLayout.transformChild(view, itemPositionDiff, mOrientation, itemAdapterPosition, transformation);
+        }
+        if (mPropertyTransformEnabled) {
+            // child is laid out in the layout center and scroll offset is applied as translation
+            final float offsetX;
+            final float offsetY;
+            if (VERTICAL == mOrientation) {
+                top -= offset;
+                bottom -= offset;
+                offsetX = 0;
+                offsetY = offset;
+            } else {
+                start -= offset;
+                end -= offset;
+                offsetX = offset;
+                offsetY = 0;
+            }
+            if (view.isLayoutRequested() || view.getLeft() != start || view.getTop() != top || view.getRight() != end || view.getBottom() != bottom) {
+                view.layout(start, top, end, bottom);
+            }
+            if (!transformed) {
+                setChildTranslation(view, lp, offsetX, offsetY);
+            } else {
+                setChildTranslation(view, lp, offsetX + transformation.mTranslationX, offsetY + transformation.mTranslationY);
+                setChildScale(view, lp, transformation.mScaleX, transformation.mScaleY);
+                setChildAlphaAndRotation(view, lp, transformation);
+            }
+        } else if (!transformed) {
             view.layout(start, top, end, bottom);
         } else {
             view.layout(Math.round(start + transformation.mTranslationX), Math.round(top + transformation.mTranslationY),
                     Math.round(end + transformation.mTranslationX), Math.round(bottom + transformation.mTranslationY));
 
-            view.setScaleX(transformation.mScaleX);
-            view.setScaleY(transformation.mScaleY);
+            setChildScale(view, lp, transformation.mScaleX, transformation.mScaleY);
+            // batch transformations own alpha and rotations in both modes
+            if (INVALID_POSITION != transformIndex) {
+                setChildAlphaAndRotation(view, lp, transformation);
+            }
+        }
+        if (mHardwareLayersDuringScrollEnabled) {
+            updateChildLayerType(view);
+        }
+    }
+
+    /**
+     * Returns child layout params that cache last properties pushed to this child.
+     * Cached values are dropped after every layout and after child is fetched from recycler, because anything could change its properties.
+     *
+     * @return layout params with valid cache or null if child has foreign layout params
+     */
+    @Nullable
+    private LayoutParams getPropertyCache(@NonNull final View view) {
+        final ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (!(params instanceof LayoutParams)) {
+            return null;
+        }
+        final LayoutParams lp = (LayoutParams) params;
+        if (mPropertyGeneration != lp.mPropertyGeneration) {
+            lp.mPropertyGeneration = mPropertyGeneration;
+            // NaN is never equal to any value, so all properties are pushed next time
+            lp.mElevation = Float.NaN;
+            lp.mTranslationX = Float.NaN;
+            lp.mTranslationY = Float.NaN;
+            lp.mScaleX = Float.NaN;
+            lp.mScaleY = Float.NaN;
+            lp.mAlpha = Float.NaN;
+            lp.mRotation = Float.NaN;
+            lp.mRotationX = Float.NaN;
+            lp.mRotationY = Float.NaN;
+        }
+        return lp;
+    }
+
+    @SuppressWarnings("FloatingPointEquality")
+    private static void setChildElevation(@NonNull final View view, @Nullable final LayoutParams lp, final float elevation) {
+        if (null == lp || lp.mElevation != elevation) {
+            ViewCompat.setElevation(view, elevation);
+            if (null != lp) {
+                lp.mElevation = elevation;
+            }
+        }
+    }
+
+    @SuppressWarnings("FloatingPointEquality")
+    private static void setChildTranslation(@NonNull final View view, @Nullable final LayoutParams lp, final float translationX, final float translationY) {
+        if (null == lp || lp.mTranslationX != translationX) {
+            view.setTranslationX(translationX);
+        }
+        if (null == lp || lp.mTranslationY != translationY) {
+            view.setTranslationY(translationY);
+        }
+        if (null != lp) {
+            lp.mTranslationX = translationX;
+            lp.mTranslationY = translationY;
+        }
+    }
+
+    @SuppressWarnings("FloatingPointEquality")
+    private static void setChildScale(@NonNull final View view, @Nullable final LayoutParams lp, final float scaleX, final float scaleY) {
+        if (null == lp || lp.mScaleX != scaleX) {
+            view.setScaleX(scaleX);
+        }
+        if (null == lp || lp.mScaleY != scaleY) {
+            view.setScaleY(scaleY);
+        }
+        if (null != lp) {
+            lp.mScaleX = scaleX;
+            lp.mScaleY = scaleY;
+        }
+    }
+
+    @SuppressWarnings("FloatingPointEquality")
+    private void setChildAlphaAndRotation(@NonNull final View view, @Nullable final LayoutParams lp, @NonNull final ItemTransformation transformation) {
+        mChildAlphaAndRotationWritten = true;
+        if (null == lp || lp.mAlpha != transformation.mAlpha) {
+            view.setAlpha(transformation.mAlpha);
+        }
+        if (null == lp || lp.mRotation != transformation.mRotation) {
+            view.setRotation(transformation.mRotation);
+        }
+        if (null == lp || lp.mRotationX != transformation.mRotationX) {
+            view.setRotationX(transformation.mRotationX);
+        }
+        if (null == lp || lp.mRotationY != transformation.mRotationY) {
+            view.setRotationY(transformation.mRotationY);
+        }
+        if (null != lp) {
+            lp.mAlpha = transformation.mAlpha;
+            lp.mRotation = transformation.mRotation;
+            lp.mRotationX = transformation.mRotationX;
+            lp.mRotationY = transformation.mRotationY;
+        }
+    }
+
+    /**
+     * Resets properties that are owned by this LayoutManager only in some modes.
+     * Children are not touched if this LayoutManager hasn't written these properties, so values set by adapter are kept.
+     */
+    private void resetChildrenAlphaAndRotation() {
+        if (!mChildAlphaAndRotationWritten) {
+            return;
+        }
+        mChildAlphaAndRotationWritten = false;
+        for (int i = 0, count = getChildCount(); i < count; ++i) {
+            final View view = getChildAt(i);
+            view.setAlpha(1.0f);
+            view.setRotation(0);
+            view.setRotationX(0);
+            view.setRotationY(0);
         }
     }
 
@@ -508,19 +2115,76 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      * @return current scroll position of center item. this value can be in any range if it is cycle layout.
      * if this is not, that then it is in [0, {@link #mItemsCount - 1}]
      */
-    private float getCurrentScrollPosition() {
-        final int fullScrollSize = getMaxScrollOffset();
+    private double getCurrentScrollPosition() {
+        final long fullScrollSize = getMaxScrollOffset();
         if (0 == fullScrollSize) {
             return 0;
         }
-        return 1.0f * mLayoutHelper.mScrollOffset / getScrollItemSize();
+        if (mVariableItemSize) {
+            return getVariableScrollPosition(mLayoutHelper.mScrollOffset);
+        }
+        return 1.0 * mLayoutHelper.mScrollOffset / getScrollItemSize();
+    }
+
+    /**
+     * @return scroll position for variable size items. integer part is item position that contains scroll offset,
+     * fraction part is an offset inside of this item relative to its size.
+     */
+    private double getVariableScrollPosition(final long scrollOffset) {
+        final int itemsCount = mItemSizeIndex.getCount();
+        final long totalSize = mItemSizeIndex.getTotalSize();
+        long offset = scrollOffset;
+        long turns = 0;
+        if (mCircleLayout && 0 < totalSize) {
+            turns = offset / totalSize;
+            offset %= totalSize;
+            if (0 > offset) {
+                offset += totalSize;
+                --turns;
+            }
+        }
+        final int position = mItemSizeIndex.findPosition(offset);
+        final int size = mItemSizeIndex.getSize(position);
+        final double fraction = 0 == size ? 0 : 1.0 * (offset - mItemSizeIndex.getOffset(position)) / size;
+        return 1.0 * turns * itemsCount + position + fraction;
+    }
+
+    /**
+     * Stores measured size of the variable size item. If size of the item before current one was changed, then scroll offset is moved too,
+     * so current items stay on their places.
+     */
+    private void updateItemSize(final int position, @NonNull final View view) {
+        if (position >= mItemSizeIndex.getCount()) {
+            return;
+        }
+        final int size = VERTICAL == mOrientation ? getDecoratedMeasuredHeight(view) : getDecoratedMeasuredWidth(view);
+        long offset = mLayoutHelper.mScrollOffset;
+        final long totalSize = mItemSizeIndex.getTotalSize();
+        if (mCircleLayout && 0 < totalSize) {
+            offset %= totalSize;
+            if (0 > offset) {
+                offset += totalSize;
+            }
+        }
+        final boolean beforeCurrentItem = position < mItemSizeIndex.findPosition(offset);
+
+        final int diff = mItemSizeIndex.setSize(position, size);
+        if (0 != diff) {
+            mItemSizesChanged = true;
+        }
+        if (beforeCurrentItem) {
+            mLayoutHelper.mScrollOffset += diff;
+        }
     }
 
     /**
      * @return maximum scroll value to fill up all items in layout. Generally this is only needed for non cycle layouts.
      */
-    private int getMaxScrollOffset() {
-        return getScrollItemSize() * (mItemsCount - 1);
+    private long getMaxScrollOffset() {
+        if (mVariableItemSize) {
+            return mItemSizeIndex.getOffset(mItemSizeIndex.getCount() - 1);
+        }
+        return (long) getScrollItemSize() * (mItemsCount - 1);
     }
 
     /**
@@ -531,80 +2195,125 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      * @param currentScrollPosition current scroll position this is a value that indicates position of center item
      *                              (if this value is int, then center item is really in the center of the layout, else it is near state).
      *                              Be aware that this value can be in any range is it is cycle layout
+     * @param extraVisibleItems     items count to add on each side of visible items. used in pre layout to show items that replace removed ones
      * @param state                 Transient state of RecyclerView
      * @see #getCurrentScrollPosition()
      */
-    private void generateLayoutOrder(final float currentScrollPosition, @NonNull final RecyclerView.State state) {
+    private void generateLayoutOrder(final double currentScrollPosition, final int extraVisibleItems, @NonNull final RecyclerView.State state) {
         mItemsCount = state.getItemCount();
-        final float absCurrentScrollPosition = makeScrollPositionInRange0ToCount(currentScrollPosition, mItemsCount);
-        final int centerItem = Math.round(absCurrentScrollPosition);
+        mLayoutHelper.generateLayoutOrder(currentScrollPosition, mItemsCount, mCircleLayout, extraVisibleItems);
+    }
 
-        if (mCircleLayout && 1 < mItemsCount) {
-            final int layoutCount = Math.min(mLayoutHelper.mMaxVisibleItems * 2 + 1, mItemsCount);
+    public int getWidthNoPadding() {
+        return getWidth() - getPaddingStart() - getPaddingEnd();
+    }
 
-            mLayoutHelper.initLayoutOrder(layoutCount);
+    public int getHeightNoPadding() {
+        return getHeight() - getPaddingEnd() - getPaddingStart();
+    }
 
-            final int countLayoutHalf = layoutCount / 2;
-            // before center item
-            for (int i = 1; i <= countLayoutHalf; ++i) {
-                final int position = Math.round(absCurrentScrollPosition - i + mItemsCount) % mItemsCount;
-                mLayoutHelper.setLayoutOrder(countLayoutHalf - i, position, centerItem - absCurrentScrollPosition - i);
+    /**
+     * Returns view for the given position and places it as child with childIndex index.
+     * Already attached view is reused if it is still in layout, otherwise new view is fetched from recycler and measured.
+     * Child order is the same as layout order, so center item is always the last child.
+     *
+     * @param position   adapter position of item
+     * @param recycler   Recycler to use for fetching potentially cached views for a position
+     * @param childIndex index in layout order. all children before this index are already placed
+     * @return view that is attached at childIndex
+     */
+    private View bindChild(final int position, @NonNull final RecyclerView.Recycler recycler, final int childIndex) {
+        final View attachedView = mAttachedViews.get(position);
+        if (null != attachedView) {
+            if (getChildAt(childIndex) != attachedView) {
+                detachView(attachedView);
+                attachView(attachedView, childIndex);
             }
-            // after center item
-            for (int i = layoutCount - 1; i >= countLayoutHalf + 1; --i) {
-                final int position = Math.round(absCurrentScrollPosition - i + layoutCount) % mItemsCount;
-                mLayoutHelper.setLayoutOrder(i - 1, position, centerItem - absCurrentScrollPosition + layoutCount - i);
+            if (null != mActiveLayoutMetrics) {
+                mActiveLayoutMetrics.onViewReused();
             }
-            mLayoutHelper.setLayoutOrder(layoutCount - 1, centerItem, centerItem - absCurrentScrollPosition);
-
-        } else {
-            final int firstVisible = Math.max(centerItem - mLayoutHelper.mMaxVisibleItems, 0);
-            final int lastVisible = Math.min(centerItem + mLayoutHelper.mMaxVisibleItems, mItemsCount - 1);
-            final int layoutCount = lastVisible - firstVisible + 1;
+            return attachedView;
+        }
 
-            mLayoutHelper.initLayoutOrder(layoutCount);
+        final View view = recycler.getViewForPosition(position);
+        if (null != mActiveLayoutMetrics) {
+            mActiveLayoutMetrics.onViewBound();
+        }
+        final ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params instanceof LayoutParams) {
+            // properties of this view could be changed while it was detached
+            ((LayoutParams) params).mPropertyGeneration = -1;
+        }
 
-            for (int i = firstVisible; i <= lastVisible; ++i) {
-                if (i == centerItem) {
-                    mLayoutHelper.setLayoutOrder(layoutCount - 1, i, i - absCurrentScrollPosition);
-                } else if (i < centerItem) {
-                    mLayoutHelper.setLayoutOrder(i - firstVisible, i, i - absCurrentScrollPosition);
-                } else {
-                    mLayoutHelper.setLayoutOrder(layoutCount - (i - centerItem) - 1, i, i - absCurrentScrollPosition);
-                }
-            }
+        addView(view, childIndex);
+        measureChildIfNeeded(view, position);
+        if (mItemSizeUpdatesEnabled) {
+            updateItemSize(position, view);
         }
-    }
 
-    public int getWidthNoPadding() {
-        return getWidth() - getPaddingStart() - getPaddingEnd();
+        return view;
     }
 
-    public int getHeightNoPadding() {
-        return getHeight() - getPaddingEnd() - getPaddingStart();
+    /**
+     * Measures child only if it can have a different size since its last measure: it was bound for another position,
+     * it requested layout or there was a layout pass after its measure.
+     * Views that come from scrap or cache during scroll are not measured again.
+     */
+    private void measureChildIfNeeded(@NonNull final View view, final int position) {
+        final ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params instanceof LayoutParams) {
+            final LayoutParams lp = (LayoutParams) params;
+            if (!view.isLayoutRequested() && mMeasureGeneration == lp.mMeasureGeneration && position == lp.mMeasuredPosition) {
+                return;
+            }
+        }
+        measureChild(view, position);
     }
 
-    private View bindChild(final int position, @NonNull final RecyclerView.Recycler recycler) {
-        final View view = recycler.getViewForPosition(position);
-
-        addView(view);
+    private void measureChild(@NonNull final View view, final int position) {
         measureChildWithMargins(view, 0, 0);
+        ++mChildMeasureCount;
 
-        return view;
+        final ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params instanceof LayoutParams) {
+            final LayoutParams lp = (LayoutParams) params;
+            lp.mMeasureGeneration = mMeasureGeneration;
+            lp.mMeasuredPosition = position;
+        }
     }
 
-    private void recyclerOldViews(final RecyclerView.Recycler recycler) {
-        for (RecyclerView.ViewHolder viewHolder : new ArrayList<>(recycler.getScrapList())) {
-            int adapterPosition = viewHolder.getAdapterPosition();
-            boolean found = false;
-            for (LayoutOrder layoutOrder : mLayoutHelper.mLayoutOrder) {
-                if (layoutOrder.mItemAdapterPosition == adapterPosition) {
-                    found = true;
-                    break;
+    /**
+     * Called during incremental layout. Removes and recycles attached children that are not in new layout order,
+     * all other children are collected into {@link #mAttachedViews} to be reused by {@link #bindChild(int, RecyclerView.Recycler, int)}.
+     *
+     * @param recycler Recycler to recycle views that are not needed any more
+     */
+    private void collectAttachedViews(@NonNull final RecyclerView.Recycler recycler) {
+        mAttachedViews.clear();
+        for (int i = getChildCount() - 1; 0 <= i; --i) {
+            final View child = getChildAt(i);
+            final int position = getPosition(child);
+            if (mLayoutHelper.hasAdapterPosition(position)) {
+                mAttachedViews.put(position, child);
+            } else {
+                removeAndRecycleView(child, recycler);
+                if (null != mActiveLayoutMetrics) {
+                    mActiveLayoutMetrics.onViewsRecycled(1);
                 }
             }
-            if (!found) {
+        }
+    }
+
+    private void recyclerOldViews(final RecyclerView.Recycler recycler) {
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        // recycleView removes view holder from scrap list, so we go from the end of it
+        for (int i = scrapList.size() - 1; 0 <= i; --i) {
+            final RecyclerView.ViewHolder viewHolder = scrapList.get(i);
+            if (!mLayoutHelper.hasAdapterPosition(viewHolder.getAdapterPosition())) {
                 recycler.recycleView(viewHolder.itemView);
+                if (null != mActiveLayoutMetrics) {
+                    mActiveLayoutMetrics.onViewsRecycled(1);
+                }
             }
         }
     }
@@ -625,42 +2334,23 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      */
     protected int getCardOffsetByPositionDiff(final float itemPositionDiff) {
         final double smoothPosition = convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff);
-
-        final int dimenDiff;
-        if (VERTICAL == mOrientation) {
-            dimenDiff = (getHeightNoPadding() - mDecoratedChildHeight) / 2;
-        } else {
-            dimenDiff = (getWidthNoPadding() - mDecoratedChildWidth) / 2;
-        }
-        //noinspection NumericCastThatLosesPrecision
-        return (int) Math.round(Math.signum(itemPositionDiff) * dimenDiff * smoothPosition);
+        return LayoutHelper.getCardOffset(itemPositionDiff, smoothPosition, mCardOffsetDimen);
     }
 
     /**
      * Called during {@link #getCardOffsetByPositionDiff(float)} for better item movement. <br/>
-     * Current implementation speed up items that are far from layout center line and slow down items that are close to this line.
-     * This code is full of maths. If you want to make items move in a different way, probably you should override this method.<br />
-     * Please see code comments for better explanations.
+     * Current implementation delegates to {@link CarouselOffsetCurve} that is set by {@link #setOffsetCurve(CarouselOffsetCurve)}.
+     * By default it is {@link DefaultOffsetCurve} that speed up items that are far from layout center line and slow down items that are close to this line.
+     * If you want to make items move in a different way, probably you should set your own curve or override this method.
      *
      * @param itemPositionDiff current item difference with layout center line. if this is 0, then this item center is in layout center line.
      *                         if this is 1 then this item is bellow the layout center line in the full item size distance.
      * @return smooth position offset. needed for scroll calculation and better user experience.
      * @see #getCardOffsetByPositionDiff(float)
      */
-    @SuppressWarnings({"MagicNumber", "InstanceMethodNamingConvention"})
+    @SuppressWarnings("InstanceMethodNamingConvention")
     protected double convertItemPositionDiffToSmoothPositionDiff(final float itemPositionDiff) {
-        // generally item moves the same way above center and bellow it. So we don't care about diff sign.
-        final float absIemPositionDiff = Math.abs(itemPositionDiff);
-
-        // we detect if this item is close for center or not. We use (1 / maxVisibleItem) ^ (1/3) as close definer.
-        if (absIemPositionDiff > StrictMath.pow(1.0f / mLayoutHelper.mMaxVisibleItems, 1.0f / 3)) {
-            // this item is far from center line, so we should make it move like square root function
-            return StrictMath.pow(absIemPositionDiff / mLayoutHelper.mMaxVisibleItems, 1 / 2.0f);
-        } else {
-            // this item is close from center line. we should slow it down and don't make it speed up very quick.
-            // so square function in range of [0, (1/maxVisible)^(1/3)] is quite good in it;
-            return StrictMath.pow(absIemPositionDiff, 2.0f);
-        }
+        return mOffsetCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, mLayoutHelper.mMaxVisibleItems);
     }
 
     /**
@@ -699,32 +2389,79 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
      * @return Scroll offset from nearest item from center
      */
     protected int getOffsetCenterView() {
-        return Math.round(getCurrentScrollPosition()) * getScrollItemSize() - mLayoutHelper.mScrollOffset;
+        //noinspection NumericCastThatLosesPrecision
+        return (int) (getScrollOffsetForPosition(Math.round(getCurrentScrollPosition())) - mLayoutHelper.mScrollOffset);
     }
 
     protected int getOffsetForCurrentView(@NonNull final View view) {
-        final int targetPosition = getPosition(view);
-        final float directionDistance = getScrollDirection(targetPosition);
+        return -getScrollDistanceToPosition(getPosition(view));
+    }
 
-        return Math.round(directionDistance * getScrollItemSize());
+    /**
+     * Calculates scroll that makes item with targetPosition the center one. In circle layout this is the shortest way around the circle,
+     * so target just behind the center item is never reached through all other items.
+     *
+     * @param targetPosition adapter position of item
+     * @return scroll distance in px. it can be passed to {@link RecyclerView#smoothScrollBy(int, int)} along layout orientation
+     */
+    public int getScrollDistanceToPosition(final int targetPosition) {
+        if (mVariableItemSize) {
+            long distance = getScrollOffsetForPosition(targetPosition) - mLayoutHelper.mScrollOffset;
+            final long totalSize = mItemSizeIndex.getTotalSize();
+            if (mCircleLayout && 0 < totalSize) {
+                // the shortest way in the circle
+                distance %= totalSize;
+                if (distance > totalSize / 2) {
+                    distance -= totalSize;
+                } else if (distance < -totalSize / 2) {
+                    distance += totalSize;
+                }
+            }
+            //noinspection NumericCastThatLosesPrecision
+            return (int) distance;
+        }
+        //noinspection NumericCastThatLosesPrecision
+        return (int) Math.round(getItemDistanceToPosition(targetPosition) * getScrollItemSize());
     }
 
     /**
-     * Helper method that make scroll in range of [0, count). Generally this method is needed only for cycle layout.
+     * Finds item that will be in the center after scroll by scrollDistance. This item is never behind current scroll position in scroll direction,
+     * so fling never goes back.
      *
-     * @param currentScrollPosition any scroll position range.
-     * @param count                 adapter items count
-     * @return good scroll position in range of [0, count)
+     * @param scrollDistance    scroll distance in px
+     * @param maxItemsPerScroll maximum count of items from current center item to target item.
+     *                          in circle layout it is also limited by half of items count, so scroll goes the shortest way to target
+     * @return target adapter position or {@link #INVALID_POSITION} if there are no items
      */
-    private static float makeScrollPositionInRange0ToCount(final float currentScrollPosition, final int count) {
-        float absCurrentScrollPosition = currentScrollPosition;
-        while (0 > absCurrentScrollPosition) {
-            absCurrentScrollPosition += count;
+    int findTargetPositionForScroll(final int scrollDistance, final int maxItemsPerScroll) {
+        if (0 == mItemsCount || 0 == getScrollItemSize()) {
+            return INVALID_POSITION;
+        }
+        final double currentScrollPosition = getCurrentScrollPosition();
+        final long targetOffset = mLayoutHelper.mScrollOffset + scrollDistance;
+        final double targetScrollPosition = mVariableItemSize ? getVariableScrollPosition(targetOffset) : 1.0 * targetOffset / getScrollItemSize();
+
+        long targetItem = Math.round(targetScrollPosition);
+        if (0 < scrollDistance) {
+            targetItem = Math.max(targetItem, (long) Math.ceil(currentScrollPosition));
+        } else if (0 > scrollDistance) {
+            targetItem = Math.min(targetItem, (long) Math.floor(currentScrollPosition));
         }
-        while (Math.round(absCurrentScrollPosition) >= count) {
-            absCurrentScrollPosition -= count;
+
+        final long currentItem = Math.round(currentScrollPosition);
+        final int maxItems = mCircleLayout ? Math.min(maxItemsPerScroll, mItemsCount / 2) : maxItemsPerScroll;
+        targetItem = Math.max(currentItem - maxItems, Math.min(currentItem + maxItems, targetItem));
+
+        if (mCircleLayout) {
+            targetItem %= mItemsCount;
+            if (0 > targetItem) {
+                targetItem += mItemsCount;
+            }
+        } else {
+            targetItem = Math.max(0, Math.min(mItemsCount - 1, targetItem));
         }
-        return absCurrentScrollPosition;
+        //noinspection NumericCastThatLosesPrecision
+        return (int) targetItem;
     }
 
     /**
@@ -735,6 +2472,73 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
     @SuppressWarnings("InterfaceNeverImplemented")
     public abstract static class PostLayoutListener {
 
+        /**
+         * Pure listener transformation depends only on item position diff, orientation and child measured size.
+         * It doesn't depend on adapter position, child content or any other state. Such transformations can be cached
+         * and can be calculated on layout planning thread (see {@link #setLayoutPlanExecutor(Executor)}). <br />
+         * <br />
+         * By default listener is not pure.
+         *
+         * @return true if this listener is pure
+         * @see CachingPostLayoutListener
+         */
+        public boolean isPure() {
+            return false;
+        }
+
+        /**
+         * Called when this listener is set to layout manager and when maximum visible items count is changed.
+         *
+         * @param maxVisibleItems maximum visible items on each side of the center item
+         */
+        public void onLayoutChanged(final int maxVisibleItems) {
+        }
+
+        /**
+         * Called once per layout pass with all children of layout pass before they are laid out. <br />
+         * <br />
+         * Override this method to transform all children at once: transformations that depend on neighbour items can be calculated here
+         * and per-child calls are avoided. Write results into batch output arrays. Children are in layout order, so the center item is the last one.
+         * Alpha and rotations from the batch are applied in both transform modes (see {@link #setPropertyTransformEnabled(boolean)}). <br />
+         * Default implementation returns false, so {@link #transformChild(View, float, int, int, ItemTransformation)} is called for each child.
+         * Pure listeners should implement per-child method anyway: it is used by {@link CachingPostLayoutListener} and occlusion culling.
+         *
+         * @param batch children with their adapter positions and position diffs
+         * @return true if batch outputs were filled and per-child method shouldn't be called in this layout pass
+         */
+        public boolean transformChildren(@NonNull final ItemTransformationBatch batch) {
+            return false;
+        }
+
+        /**
+         * Called after child layout finished. Generally you can do any translation and scaling work here. <br />
+         * <br />
+         * This method is called for each visible item on every layout and scroll pass, so implementations should not allocate anything here.
+         * Write result into outTransformation instead of creating new {@link ItemTransformation}. <br />
+         * Default implementation delegates to {@link #transformChild(View, float, int, int)} and copies its result.
+         *
+         * @param child                    view that was layout
+         * @param itemPositionToCenterDiff view center line difference to layout center. if > 0 then this item is bellow layout center line, else if not
+         * @param orientation              layoutManager orientation {@link #getLayoutDirection()}
+         * @param itemPositionInAdapter    item position inside adapter for this layout pass
+         * @param outTransformation        reusable transformation owned by layout manager. it contains values of the previous child, so all values should be set
+         * @return true if outTransformation was filled and should be applied, false if this child has no transformation
+         */
+        public boolean transformChild(
+                @NonNull final View child,
+                final float itemPositionToCenterDiff,
+                final int orientation,
+                final int itemPositionInAdapter,
+                @NonNull final ItemTransformation outTransformation
+        ) {
+            final ItemTransformation transformation = transformChild(child, itemPositionToCenterDiff, orientation, itemPositionInAdapter);
+            if (null == transformation) {
+                return false;
+            }
+            outTransformation.set(transformation);
+            return true;
+        }
+
         /**
          * Called after child layout finished. Generally you can do any translation and scaling work here.
          *
@@ -780,121 +2584,66 @@ public class CarouselLayoutManager extends RecyclerView.LayoutManager implements
         void onCenterItemChanged(final int adapterPosition);
     }
 
-    /**
-     * Helper class that holds currently visible items.
-     * Generally this class fills this list. <br />
-     * <br />
-     * This class holds all scroll and maxVisible items state.
-     *
-     * @see #getMaxVisibleItems()
-     */
-    private static class LayoutHelper {
-
-        private int mMaxVisibleItems;
-
-        private int mScrollOffset;
-
-        private LayoutOrder[] mLayoutOrder;
-
-        private final List<WeakReference<LayoutOrder>> mReusedItems = new ArrayList<>();
-
-        LayoutHelper(final int maxVisibleItems) {
-            mMaxVisibleItems = maxVisibleItems;
-        }
+    public interface OnCenterItemSettledListener {
 
         /**
-         * Called before any fill calls. Needed to recycle old items and init new array list. Generally this list is an array an it is reused.
+         * Listener that will be called once scroll goes idle if center item was changed since the previous call.
+         * It is not called for intermediate items during scroll or fling, so it is a good place for expensive operations like loading of data.
          *
-         * @param layoutCount items count that will be layout
+         * @param adapterPosition current layout center item
          */
-        void initLayoutOrder(final int layoutCount) {
-            if (null == mLayoutOrder || mLayoutOrder.length != layoutCount) {
-                if (null != mLayoutOrder) {
-                    recycleItems(mLayoutOrder);
-                }
-                mLayoutOrder = new LayoutOrder[layoutCount];
-                fillLayoutOrder();
-            }
-        }
+        void onCenterItemSettled(final int adapterPosition);
+    }
 
-        /**
-         * Called during layout generation process of filling this list. Should be called only after {@link #initLayoutOrder(int)} method call.
-         *
-         * @param arrayPosition       position in layout order
-         * @param itemAdapterPosition adapter position of item for future data filling logic
-         * @param itemPositionDiff    difference of current item scroll position and center item position.
-         *                            if this is a center item and it is in real center of layout, then this will be 0.
-         *                            if current layout is not in the center, then this value will never be int.
-         *                            if this item center is bellow layout center line then this value is greater then 0,
-         *                            else less then 0.
-         */
-        void setLayoutOrder(final int arrayPosition, final int itemAdapterPosition, final float itemPositionDiff) {
-            final LayoutOrder item = mLayoutOrder[arrayPosition];
-            item.mItemAdapterPosition = itemAdapterPosition;
-            item.mItemPositionDiff = itemPositionDiff;
-        }
+    public interface OnLayoutMetricsListener {
 
         /**
-         * Checks is this screen Layout has this adapterPosition view in layout
+         * Listener that will be called after every layout pass if it is set by {@link #setOnLayoutMetricsListener(OnLayoutMetricsListener)}.
          *
-         * @param adapterPosition adapter position of item for future data filling logic
-         * @return true is adapterItem is in layout
+         * @param metrics metrics of the finished layout pass. this object is reused, so do not keep it
          */
-        boolean hasAdapterPosition(final int adapterPosition) {
-            if (null != mLayoutOrder) {
-                for (final LayoutOrder layoutOrder : mLayoutOrder) {
-                    if (layoutOrder.mItemAdapterPosition == adapterPosition) {
-                        return true;
-                    }
-                }
-            }
-            return false;
-        }
+        void onLayoutMetrics(@NonNull LayoutMetrics metrics);
+    }
 
-        @SuppressWarnings("VariableArgumentMethod")
-        private void recycleItems(@NonNull final LayoutOrder... layoutOrders) {
-            for (final LayoutOrder layoutOrder : layoutOrders) {
-                //noinspection ObjectAllocationInLoop
-                mReusedItems.add(new WeakReference<>(layoutOrder));
-            }
+    /**
+     * {@link RecyclerView.LayoutParams} that remember when child was measured, so it is not measured again during scroll.
+     * They also remember last view properties set by layout, so unchanged values are not pushed to the view again.
+     */
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+
+        private int mMeasureGeneration = -1;
+        private int mMeasuredPosition = INVALID_POSITION;
+
+        private int mPropertyGeneration = -1;
+        private float mElevation;
+        private float mTranslationX;
+        private float mTranslationY;
+        private float mScaleX;
+        private float mScaleY;
+        private float mAlpha;
+        private float mRotation;
+        private float mRotationX;
+        private float mRotationY;
+
+        public LayoutParams(final Context c, final AttributeSet attrs) {
+            super(c, attrs);
         }
 
-        private void fillLayoutOrder() {
-            for (int i = 0, length = mLayoutOrder.length; i < length; ++i) {
-                if (null == mLayoutOrder[i]) {
-                    mLayoutOrder[i] = createLayoutOrder();
-                }
-            }
+        public LayoutParams(final int width, final int height) {
+            super(width, height);
         }
 
-        private LayoutOrder createLayoutOrder() {
-            final Iterator<WeakReference<LayoutOrder>> iterator = mReusedItems.iterator();
-            while (iterator.hasNext()) {
-                final WeakReference<LayoutOrder> layoutOrderWeakReference = iterator.next();
-                final LayoutOrder layoutOrder = layoutOrderWeakReference.get();
-                iterator.remove();
-                if (null != layoutOrder) {
-                    return layoutOrder;
-                }
-            }
-            return new LayoutOrder();
+        public LayoutParams(final ViewGroup.MarginLayoutParams source) {
+            super(source);
         }
-    }
 
-    /**
-     * Class that holds item data.
-     * This class is filled during {@link #generateLayoutOrder(float, RecyclerView.State)} and used during {@link #fillData(RecyclerView.Recycler, RecyclerView.State)}
-     */
-    private static class LayoutOrder {
+        public LayoutParams(final ViewGroup.LayoutParams source) {
+            super(source);
+        }
 
-        /**
-         * Item adapter position
-         */
-        private int mItemAdapterPosition;
-        /**
-         * Item center difference to layout center. If center of item is bellow layout center, then this value is greater then 0, else it is less.
-         */
-        private float mItemPositionDiff;
+        public LayoutParams(final RecyclerView.LayoutParams source) {
+            super(source);
+        }
     }
 
     protected static class CarouselSavedState implements Parcelable {
@@ -0,0 +1,34 @@
+package com.mig35.carousellayoutmanager;
+
+/**
+ * Curve that is used by {@link CarouselLayoutManager} to convert item position difference to smooth position difference. <br />
+ * <br />
+ * Result of this curve is multiplied by the size of area above center item to get item offset from layout center line.
+ * Curve should be symmetric: the same value should be returned for positive and negative differences.
+ *
+ * @see CarouselLayoutManager#setOffsetCurve(CarouselOffsetCurve)
+ * @see DefaultOffsetCurve
+ * @see LookupTableOffsetCurve
+ */
+public abstract class CarouselOffsetCurve {
+
+    /**
+     * Called on every layout pass for each visible item.
+     *
+     * @param itemPositionDiff current item difference with layout center line. if this is 0, then this item center is in layout center line.
+     *                         if this is 1 then this item is bellow the layout center line in the full item size distance.
+     * @param maxVisibleItems  current {@link CarouselLayoutManager#getMaxVisibleItems()}
+     * @return smooth position offset. 0 means that item is in layout center line, 1 means that item is on the layout edge.
+     */
+    public abstract double convertItemPositionDiffToSmoothPositionDiff(float itemPositionDiff, int maxVisibleItems);
+
+    /**
+     * Called when curve input parameters were changed: on {@link CarouselLayoutManager#setMaxVisibleItems(int)} or if layout or item size was changed.
+     * Curves that cache any values should rebuild them here.
+     *
+     * @param maxVisibleItems current {@link CarouselLayoutManager#getMaxVisibleItems()}
+     * @param cardOffsetDimen size of area above center item in px. curve result will be multiplied by this value
+     */
+    public void onLayoutChanged(final int maxVisibleItems, final int cardOffsetDimen) {
+    }
+}
\ No newline at end of file
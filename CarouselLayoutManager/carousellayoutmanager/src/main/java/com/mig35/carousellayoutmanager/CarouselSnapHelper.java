@@ -0,0 +1,98 @@
+package com.mig35.carousellayoutmanager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SnapHelper;
+
+/**
+ * {@link SnapHelper} that can work only with {@link CarouselLayoutManager}. <br />
+ * <br />
+ * Target item of fling is calculated from fling velocity before fling starts, so fling lands exactly on the center item in one animation.
+ * If scroll stops without fling, then the nearest to center item is centered.
+ * This class replaces {@link CenterScrollListener}, do not use them together.
+ */
+public class CarouselSnapHelper extends SnapHelper {
+
+    private int mMaxItemsPerFling;
+
+    /**
+     * Creates snap helper without limit of items count per fling.
+     */
+    @SuppressWarnings("unused")
+    public CarouselSnapHelper() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxItemsPerFling maximum count of items that one fling can pass. should be greater then 0
+     */
+    public CarouselSnapHelper(final int maxItemsPerFling) {
+        setMaxItemsPerFling(maxItemsPerFling);
+    }
+
+    /**
+     * @param maxItemsPerFling maximum count of items that one fling can pass. should be greater then 0
+     */
+    @SuppressWarnings("unused")
+    public void setMaxItemsPerFling(final int maxItemsPerFling) {
+        if (0 >= maxItemsPerFling) {
+            throw new IllegalArgumentException("maxItemsPerFling can't be less then 1");
+        }
+        mMaxItemsPerFling = maxItemsPerFling;
+    }
+
+    @SuppressWarnings("unused")
+    public int getMaxItemsPerFling() {
+        return mMaxItemsPerFling;
+    }
+
+    @Nullable
+    @Override
+    public int[] calculateDistanceToFinalSnap(@NonNull final RecyclerView.LayoutManager layoutManager, @NonNull final View targetView) {
+        final int[] distance = new int[2];
+        if (!(layoutManager instanceof CarouselLayoutManager)) {
+            return distance;
+        }
+        final CarouselLayoutManager carouselLayoutManager = (CarouselLayoutManager) layoutManager;
+        final int scrollNeeded = -carouselLayoutManager.getOffsetForCurrentView(targetView);
+        if (CarouselLayoutManager.HORIZONTAL == carouselLayoutManager.getOrientation()) {
+            distance[0] = scrollNeeded;
+        } else {
+            distance[1] = scrollNeeded;
+        }
+        return distance;
+    }
+
+    @Nullable
+    @Override
+    public View findSnapView(final RecyclerView.LayoutManager layoutManager) {
+        if (!(layoutManager instanceof CarouselLayoutManager)) {
+            return null;
+        }
+        final int centerItemPosition = ((CarouselLayoutManager) layoutManager).getCenterItemPosition();
+        // center item is the last child, so look for it from the end
+        for (int i = layoutManager.getChildCount() - 1; 0 <= i; --i) {
+            final View child = layoutManager.getChildAt(i);
+            if (null != child && layoutManager.getPosition(child) == centerItemPosition) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int findTargetSnapPosition(final RecyclerView.LayoutManager layoutManager, final int velocityX, final int velocityY) {
+        if (!(layoutManager instanceof CarouselLayoutManager) || 0 == layoutManager.getChildCount()) {
+            return RecyclerView.NO_POSITION;
+        }
+        final CarouselLayoutManager carouselLayoutManager = (CarouselLayoutManager) layoutManager;
+        final int[] scrollDistance = calculateScrollDistance(velocityX, velocityY);
+        final int distance = CarouselLayoutManager.HORIZONTAL == carouselLayoutManager.getOrientation() ? scrollDistance[0] : scrollDistance[1];
+
+        final int targetPosition = carouselLayoutManager.findTargetPositionForScroll(distance, mMaxItemsPerFling);
+        return CarouselLayoutManager.INVALID_POSITION == targetPosition ? RecyclerView.NO_POSITION : targetPosition;
+    }
+}
\ No newline at end of file
@@ -20,8 +20,24 @@ public class CarouselZoomPostLayoutListener extends CarouselLayoutManager.PostLa
         mScaleMultiplier = scaleMultiplier;
     }
 
+    /**
+     * Zoom depends only on item position diff, orientation and child size, so it can be wrapped into {@link CachingPostLayoutListener}.
+     */
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public ItemTransformation transformChild(@NonNull final View child, final float itemPositionToCenterDiff, final int orientation) {
+        final ItemTransformation transformation = new ItemTransformation();
+        transformChild(child, itemPositionToCenterDiff, orientation, CarouselLayoutManager.INVALID_POSITION, transformation);
+        return transformation;
+    }
+
+    @Override
+    public boolean transformChild(@NonNull final View child, final float itemPositionToCenterDiff, final int orientation, final int itemPositionInAdapter,
+                                  @NonNull final ItemTransformation outTransformation) {
         final float scale = 1.0f - mScaleMultiplier * Math.abs(itemPositionToCenterDiff);
 
         // because scaling will make view smaller in its center, then we should move this item to the top or bottom to make it visible
@@ -37,6 +53,7 @@ public class CarouselZoomPostLayoutListener extends CarouselLayoutManager.PostLa
             translateY = 0;
         }
 
-        return new ItemTransformation(scale, scale, translateX, translateY);
+        outTransformation.set(scale, scale, translateX, translateY);
+        return true;
     }
 }
\ No newline at end of file
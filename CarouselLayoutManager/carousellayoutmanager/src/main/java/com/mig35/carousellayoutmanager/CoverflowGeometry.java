@@ -0,0 +1,85 @@
+package com.mig35.carousellayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselGeometry} that makes cover flow: the center item faces the user and side items are turned to the center. <br />
+ * <br />
+ * Side items are rotated around Y axis in horizontal layout and around X axis in vertical one.
+ * The nearest side items are placed centerSpacing of item size from the center one, next side items follow each other with sideSpacing.
+ */
+public class CoverflowGeometry extends CarouselGeometry {
+
+    private static final float DEFAULT_MAX_ANGLE = 50;
+    private static final float DEFAULT_SIDE_SCALE = 0.8f;
+    private static final float DEFAULT_CENTER_SPACING = 0.6f;
+    private static final float DEFAULT_SIDE_SPACING = 0.25f;
+
+    private final float mMaxAngle;
+    private final float mSideScale;
+    private final float mCenterSpacing;
+    private final float mSideSpacing;
+
+    @SuppressWarnings("unused")
+    public CoverflowGeometry() {
+        this(DEFAULT_MAX_ANGLE, DEFAULT_SIDE_SCALE, DEFAULT_CENTER_SPACING, DEFAULT_SIDE_SPACING);
+    }
+
+    /**
+     * @param maxAngle      rotation of side items in degrees
+     * @param sideScale     scale of side items. should be greater then 0
+     * @param centerSpacing distance between center and the nearest side items centers in item sizes. can't be less then 0
+     * @param sideSpacing   distance between side items centers in item sizes. can't be less then 0
+     */
+    public CoverflowGeometry(final float maxAngle, final float sideScale, final float centerSpacing, final float sideSpacing) {
+        if (0 >= sideScale) {
+            throw new IllegalArgumentException("sideScale should be greater then 0");
+        }
+        if (0 > centerSpacing || 0 > sideSpacing) {
+            throw new IllegalArgumentException("spacing can't be less then 0");
+        }
+        mMaxAngle = maxAngle;
+        mSideScale = sideScale;
+        mCenterSpacing = centerSpacing;
+        mSideSpacing = sideSpacing;
+    }
+
+    /**
+     * Coverflow parameters are set only in constructor.
+     */
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    public void transformItems(@NonNull final ItemTransformationBatch batch) {
+        final boolean vertical = CarouselLayoutManager.VERTICAL == batch.getOrientation();
+        final int itemSize = vertical ? batch.getChildHeight() : batch.getChildWidth();
+        final float centerSpacing = itemSize * mCenterSpacing;
+        final float sideSpacing = itemSize * mSideSpacing;
+        final float sideScaleDiff = 1 - mSideScale;
+        // turned item should face the center: its inner edge goes to the user
+        final float maxAngle = vertical ? mMaxAngle : -mMaxAngle;
+
+        final float[] itemPositionDiffs = batch.getItemPositionDiffs();
+        final float[] translations = vertical ? batch.getTranslationY() : batch.getTranslationX();
+        final float[] rotations = vertical ? batch.getRotationX() : batch.getRotationY();
+        final float[] scalesX = batch.getScaleX();
+        final float[] scalesY = batch.getScaleY();
+        for (int i = 0, count = batch.getCount(); i < count; ++i) {
+            final float itemPositionDiff = itemPositionDiffs[i];
+            final float sign = Math.signum(itemPositionDiff);
+            final float absItemPositionDiff = Math.abs(itemPositionDiff);
+            // near part is the way from the center to the nearest side place, far part is the way along the side
+            final float near = Math.min(absItemPositionDiff, 1);
+            final float far = Math.max(absItemPositionDiff - 1, 0);
+
+            final float scale = 1 - near * sideScaleDiff;
+            translations[i] = sign * (near * centerSpacing + far * sideSpacing);
+            rotations[i] = sign * near * maxAngle;
+            scalesX[i] = scale;
+            scalesY[i] = scale;
+        }
+    }
+}
\ No newline at end of file
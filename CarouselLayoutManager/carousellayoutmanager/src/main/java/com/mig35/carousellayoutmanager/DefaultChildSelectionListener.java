@@ -22,7 +22,13 @@ public class DefaultChildSelectionListener extends CarouselChildSelectionListene
 
     @Override
     protected void onBackItemClicked(@NonNull final RecyclerView recyclerView, @NonNull final CarouselLayoutManager carouselLayoutManager, @NonNull final View v) {
-        recyclerView.smoothScrollToPosition(carouselLayoutManager.getPosition(v));
+        // scroll by the shortest way, so in circle layout item just behind the center one doesn't go through all other items
+        final int scrollDistance = carouselLayoutManager.getScrollDistanceToPosition(carouselLayoutManager.getPosition(v));
+        if (CarouselLayoutManager.HORIZONTAL == carouselLayoutManager.getOrientation()) {
+            recyclerView.smoothScrollBy(scrollDistance, 0);
+        } else {
+            recyclerView.smoothScrollBy(0, scrollDistance);
+        }
     }
 
     public static DefaultChildSelectionListener initCenterItemListener(@NonNull final OnCenterItemClickListener onCenterItemClickListener, @NonNull final RecyclerView recyclerView, @NonNull final CarouselLayoutManager carouselLayoutManager) {
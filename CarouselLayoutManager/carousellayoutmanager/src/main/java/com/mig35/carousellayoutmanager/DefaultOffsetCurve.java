@@ -0,0 +1,41 @@
+package com.mig35.carousellayoutmanager;
+
+/**
+ * Default {@link CarouselOffsetCurve} implementation. <br />
+ * <br />
+ * It speeds up items that are far from layout center line and slows down items that are close to this line.
+ * Threshold between this two parts is cached and is recalculated only if maxVisibleItems was changed.
+ */
+public class DefaultOffsetCurve extends CarouselOffsetCurve {
+
+    // curves don't depend on layout manager, so they can be measured on a plain JVM
+    private static final int INVALID_MAX_VISIBLE_ITEMS = -1;
+
+    private int mThresholdMaxVisibleItems = INVALID_MAX_VISIBLE_ITEMS;
+    private double mThreshold;
+
+    @Override
+    @SuppressWarnings("InstanceMethodNamingConvention")
+    public double convertItemPositionDiffToSmoothPositionDiff(final float itemPositionDiff, final int maxVisibleItems) {
+        // generally item moves the same way above center and bellow it. So we don't care about diff sign.
+        final float absIemPositionDiff = Math.abs(itemPositionDiff);
+
+        // we detect if this item is close for center or not. We use (1 / maxVisibleItem) ^ (1/3) as close definer.
+        if (absIemPositionDiff > getThreshold(maxVisibleItems)) {
+            // this item is far from center line, so we should make it move like square root function
+            return Math.sqrt(absIemPositionDiff / maxVisibleItems);
+        } else {
+            // this item is close from center line. we should slow it down and don't make it speed up very quick.
+            // so square function in range of [0, (1/maxVisible)^(1/3)] is quite good in it;
+            return absIemPositionDiff * absIemPositionDiff;
+        }
+    }
+
+    private double getThreshold(final int maxVisibleItems) {
+        if (mThresholdMaxVisibleItems != maxVisibleItems) {
+            mThreshold = Math.cbrt(1.0 / maxVisibleItems);
+            mThresholdMaxVisibleItems = maxVisibleItems;
+        }
+        return mThreshold;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.mig35.carousellayoutmanager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Layout order and item transformations of one scroll frame. <br />
+ * <br />
+ * Plan is built only from its inputs: scroll offset, layout config and pure {@link CarouselGeometry} or {@link CarouselLayoutManager.PostLayoutListener},
+ * so it gives the same result as layout pass for the same inputs and can be built on another thread.
+ * Card offsets are not planned: they are calculated by overridable layout manager methods on the main thread.
+ *
+ * @see LayoutPlanner
+ */
+final class FramePlan {
+
+    long mScrollOffset;
+    int mScrollItemSize;
+    int mItemsCount;
+    boolean mCircleLayout;
+    int mMaxVisibleItems;
+    int mOrientation;
+    int mChildWidth;
+    int mChildHeight;
+    int mCardOffsetDimen;
+    @Nullable
+    CarouselGeometry mGeometry;
+    @Nullable
+    CarouselLayoutManager.PostLayoutListener mPostLayoutListener;
+    /**
+     * Child that is passed to pure listener. Its measured size is a plan input
+     */
+    @Nullable
+    View mSampleChild;
+    int mSampleChildWidth;
+    int mSampleChildHeight;
+
+    private boolean mBuilt;
+
+    /**
+     * Layout order of the frame
+     */
+    final LayoutHelper mLayoutHelper = new LayoutHelper(0);
+    /**
+     * Transformations of the frame. If plan has listener, then listener results are marked in {@link ItemTransformationBatch#mTransformed}
+     */
+    final ItemTransformationBatch mBatch = new ItemTransformationBatch();
+
+    private final ItemTransformation mTransformation = new ItemTransformation();
+
+    @SuppressWarnings("MethodWithTooManyParameters")
+    void setInputs(final long scrollOffset, final int scrollItemSize, final int itemsCount, final boolean circleLayout, final int maxVisibleItems,
+                   final int orientation, final int childWidth, final int childHeight, final int cardOffsetDimen,
+                   @Nullable final CarouselGeometry geometry, @Nullable final CarouselLayoutManager.PostLayoutListener postLayoutListener,
+                   @Nullable final View sampleChild) {
+        mBuilt = false;
+        mScrollOffset = scrollOffset;
+        mScrollItemSize = scrollItemSize;
+        mItemsCount = itemsCount;
+        mCircleLayout = circleLayout;
+        mMaxVisibleItems = maxVisibleItems;
+        mOrientation = orientation;
+        mChildWidth = childWidth;
+        mChildHeight = childHeight;
+        mCardOffsetDimen = cardOffsetDimen;
+        mGeometry = geometry;
+        mPostLayoutListener = null == geometry ? postLayoutListener : null;
+        mSampleChild = null == mPostLayoutListener ? null : sampleChild;
+        mSampleChildWidth = null == mSampleChild ? 0 : mSampleChild.getMeasuredWidth();
+        mSampleChildHeight = null == mSampleChild ? 0 : mSampleChild.getMeasuredHeight();
+    }
+
+    /**
+     * Copies inputs of another plan. Built result is not copied.
+     */
+    void setInputs(@NonNull final FramePlan plan) {
+        mBuilt = false;
+        mScrollOffset = plan.mScrollOffset;
+        mScrollItemSize = plan.mScrollItemSize;
+        mItemsCount = plan.mItemsCount;
+        mCircleLayout = plan.mCircleLayout;
+        mMaxVisibleItems = plan.mMaxVisibleItems;
+        mOrientation = plan.mOrientation;
+        mChildWidth = plan.mChildWidth;
+        mChildHeight = plan.mChildHeight;
+        mCardOffsetDimen = plan.mCardOffsetDimen;
+        mGeometry = plan.mGeometry;
+        mPostLayoutListener = plan.mPostLayoutListener;
+        mSampleChild = plan.mSampleChild;
+        mSampleChildWidth = plan.mSampleChildWidth;
+        mSampleChildHeight = plan.mSampleChildHeight;
+    }
+
+    /**
+     * @return true if this plan is built and has the same inputs as given one
+     */
+    @SuppressWarnings("OverlyComplexBooleanExpression")
+    boolean matches(@NonNull final FramePlan plan) {
+        return mBuilt && mScrollOffset == plan.mScrollOffset && mScrollItemSize == plan.mScrollItemSize && mItemsCount == plan.mItemsCount
+                && mCircleLayout == plan.mCircleLayout && mMaxVisibleItems == plan.mMaxVisibleItems && mOrientation == plan.mOrientation
+                && mChildWidth == plan.mChildWidth && mChildHeight == plan.mChildHeight && mCardOffsetDimen == plan.mCardOffsetDimen
+                && mGeometry == plan.mGeometry && mPostLayoutListener == plan.mPostLayoutListener
+                && mSampleChildWidth == plan.mSampleChildWidth && mSampleChildHeight == plan.mSampleChildHeight;
+    }
+
+    /**
+     * Calculates layout order and transformations for plan inputs. Layout order is the same as layout pass builds for this scroll offset.
+     */
+    void build() {
+        final LayoutHelper layoutHelper = mLayoutHelper;
+        layoutHelper.mMaxVisibleItems = mMaxVisibleItems;
+        layoutHelper.generateLayoutOrder(1.0 * mScrollOffset / mScrollItemSize, mItemsCount, mCircleLayout, 0);
+
+        final int count = layoutHelper.mLayoutCount;
+        final ItemTransformationBatch batch = mBatch;
+        batch.init(count, mOrientation, mMaxVisibleItems, mChildWidth, mChildHeight, mCardOffsetDimen);
+        System.arraycopy(layoutHelper.mItemAdapterPositions, 0, batch.mItemAdapterPositions, 0, count);
+        System.arraycopy(layoutHelper.mItemPositionDiffs, 0, batch.mItemPositionDiffs, 0, count);
+        if (null != mGeometry) {
+            mGeometry.transformItems(batch);
+        } else if (null != mPostLayoutListener && null != mSampleChild) {
+            final ItemTransformation transformation = mTransformation;
+            for (int i = 0; i < count; ++i) {
+                if (mPostLayoutListener.transformChild(mSampleChild, batch.mItemPositionDiffs[i], mOrientation, batch.mItemAdapterPositions[i], transformation)) {
+                    batch.setTransformation(i, transformation);
+                }
+            }
+        }
+        // plan must not keep views after it is built
+        mSampleChild = null;
+        mBuilt = true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.Arrays;
+
+/**
+ * Index of item sizes along scroll axis that is used for variable size items. <br />
+ * <br />
+ * Sizes are stored in a Fenwick tree, so offset for position and position for offset are calculated in O(log n).
+ * Items that were not measured yet use default size. Storage is reused if items count is not increased.
+ * Measured sizes are moved with items when they are added, removed or moved, so adapter changes don't drop them.
+ *
+ * @see CarouselLayoutManager#setVariableItemSizeEnabled(boolean)
+ */
+final class ItemSizeIndex {
+
+    private int mCount;
+    private int mDefaultSize;
+
+    private int[] mSizes = new int[0];
+    private boolean[] mMeasured = new boolean[0];
+    // 1-based Fenwick tree, mTree[i] holds sum of sizes of (i - lowestOneBit(i), i] items
+    private long[] mTree = new long[1];
+
+    /**
+     * Forgets all measured sizes.
+     *
+     * @param count       adapter items count
+     * @param defaultSize size that is used for not measured items
+     */
+    void reset(final int count, final int defaultSize) {
+        if (mSizes.length < count) {
+            mSizes = new int[count];
+            mMeasured = new boolean[count];
+            mTree = new long[count + 1];
+        }
+        mCount = count;
+        mDefaultSize = defaultSize;
+
+        Arrays.fill(mSizes, 0, count, defaultSize);
+        Arrays.fill(mMeasured, 0, count, false);
+        buildTree();
+    }
+
+    /**
+     * Inserts not measured items with default size. Sizes of other items are kept.
+     *
+     * @param position position of the first inserted item
+     * @param count    inserted items count
+     */
+    void onItemsAdded(final int position, final int count) {
+        if (0 >= count || 0 > position || position > mCount) {
+            return;
+        }
+        final int newCount = mCount + count;
+        if (mSizes.length < newCount) {
+            // grow with headroom, so a series of inserts doesn't reallocate on every one
+            final int capacity = newCount + (newCount >> 1);
+            mSizes = Arrays.copyOf(mSizes, capacity);
+            mMeasured = Arrays.copyOf(mMeasured, capacity);
+            mTree = new long[capacity + 1];
+        }
+        System.arraycopy(mSizes, position, mSizes, position + count, mCount - position);
+        System.arraycopy(mMeasured, position, mMeasured, position + count, mCount - position);
+        Arrays.fill(mSizes, position, position + count, mDefaultSize);
+        Arrays.fill(mMeasured, position, position + count, false);
+        mCount = newCount;
+        buildTree();
+    }
+
+    /**
+     * Removes items. Sizes of other items are kept.
+     *
+     * @param position position of the first removed item
+     * @param count    removed items count
+     */
+    void onItemsRemoved(final int position, final int count) {
+        if (0 >= count || 0 > position || position >= mCount) {
+            return;
+        }
+        final int removedCount = Math.min(count, mCount - position);
+        final int movedCount = mCount - position - removedCount;
+        System.arraycopy(mSizes, position + removedCount, mSizes, position, movedCount);
+        System.arraycopy(mMeasured, position + removedCount, mMeasured, position, movedCount);
+        mCount -= removedCount;
+        buildTree();
+    }
+
+    /**
+     * Moves items from one position to another. Sizes of all items are kept.
+     *
+     * @param from  position of the first moved item before move
+     * @param to    position of the first moved item after move
+     * @param count moved items count
+     */
+    void onItemsMoved(final int from, final int to, final int count) {
+        if (0 >= count || from == to || 0 > from || 0 > to || from + count > mCount || to + count > mCount) {
+            return;
+        }
+        // moving items is a rotation of the range that they pass
+        if (from < to) {
+            rotateLeft(from, to + count, count);
+        } else {
+            rotateLeft(to, from + count, from - to);
+        }
+        buildTree();
+    }
+
+    /**
+     * Rotates [start, end) range of items left by distance without allocations.
+     */
+    private void rotateLeft(final int start, final int end, final int distance) {
+        reverse(start, start + distance);
+        reverse(start + distance, end);
+        reverse(start, end);
+    }
+
+    private void reverse(final int start, final int end) {
+        for (int i = start, j = end - 1; i < j; ++i, --j) {
+            final int size = mSizes[i];
+            mSizes[i] = mSizes[j];
+            mSizes[j] = size;
+            final boolean measured = mMeasured[i];
+            mMeasured[i] = mMeasured[j];
+            mMeasured[j] = measured;
+        }
+    }
+
+    /**
+     * Builds Fenwick tree from item sizes in linear time.
+     */
+    private void buildTree() {
+        final int count = mCount;
+        for (int i = 1; i <= count; ++i) {
+            mTree[i] = mSizes[i - 1];
+        }
+        for (int i = 1; i <= count; ++i) {
+            final int parent = i + (i & -i);
+            if (parent <= count) {
+                mTree[parent] += mTree[i];
+            }
+        }
+    }
+
+    int getCount() {
+        return mCount;
+    }
+
+    int getDefaultSize() {
+        return mDefaultSize;
+    }
+
+    int getSize(final int position) {
+        return mSizes[position];
+    }
+
+    boolean isMeasured(final int position) {
+        return mMeasured[position];
+    }
+
+    /**
+     * Stores measured size of the item.
+     *
+     * @return difference between new and previous size of this item
+     */
+    int setSize(final int position, final int size) {
+        mMeasured[position] = true;
+        final int diff = size - mSizes[position];
+        if (0 != diff) {
+            mSizes[position] = size;
+            for (int i = position + 1; i <= mCount; i += i & -i) {
+                mTree[i] += diff;
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * @return sum of sizes of all items before position
+     */
+    long getOffset(final int position) {
+        long offset = 0;
+        for (int i = Math.min(position, mCount); 0 < i; i -= i & -i) {
+            offset += mTree[i];
+        }
+        return offset;
+    }
+
+    /**
+     * @return sum of sizes of all items
+     */
+    long getTotalSize() {
+        return getOffset(mCount);
+    }
+
+    /**
+     * @return position of the item that contains offset. result is in range [0, count - 1]
+     */
+    int findPosition(final long offset) {
+        int position = 0;
+        long remaining = offset;
+        for (int step = Integer.highestOneBit(Math.max(1, mCount)); 0 != step; step >>= 1) {
+            final int next = position + step;
+            if (next <= mCount && mTree[next] <= remaining) {
+                position = next;
+                remaining -= mTree[next];
+            }
+        }
+        return Math.max(0, Math.min(mCount - 1, position));
+    }
+}
\ No newline at end of file
@@ -1,16 +1,77 @@
 package com.mig35.carousellayoutmanager;
 
+/**
+ * Transformation of one layout item. <br />
+ * <br />
+ * This class is mutable, so one instance can be reused for all children during layout pass.
+ *
+ * @see CarouselLayoutManager.PostLayoutListener#transformChild(android.view.View, float, int, int, ItemTransformation)
+ */
 public class ItemTransformation {
 
-    final float mScaleX;
-    final float mScaleY;
-    final float mTranslationX;
-    final float mTranslationY;
+    float mScaleX;
+    float mScaleY;
+    float mTranslationX;
+    float mTranslationY;
+    float mAlpha;
+    float mRotation;
+    float mRotationX;
+    float mRotationY;
+
+    /**
+     * Creates identity transformation.
+     */
+    public ItemTransformation() {
+        this(1.0f, 1.0f, 0, 0);
+    }
 
     public ItemTransformation(final float scaleX, final float scaleY, final float translationX, final float translationY) {
+        this(scaleX, scaleY, translationX, translationY, 1.0f, 0);
+    }
+
+    /**
+     * Alpha and rotation are applied only if {@link CarouselLayoutManager#setPropertyTransformEnabled(boolean)} is enabled
+     * or if transformation is calculated for all items at once by {@link CarouselGeometry}
+     * or by {@link CarouselLayoutManager.PostLayoutListener#transformChildren(ItemTransformationBatch)}.
+     */
+    public ItemTransformation(final float scaleX, final float scaleY, final float translationX, final float translationY,
+                              final float alpha, final float rotation) {
+        set(scaleX, scaleY, translationX, translationY, alpha, rotation);
+    }
+
+    /**
+     * Sets scale and translation. Alpha is reset to 1 and rotation to 0.
+     */
+    public void set(final float scaleX, final float scaleY, final float translationX, final float translationY) {
+        set(scaleX, scaleY, translationX, translationY, 1.0f, 0);
+    }
+
+    /**
+     * Sets scale, translation, alpha and rotation. Rotations around X and Y axes are reset to 0.
+     */
+    public void set(final float scaleX, final float scaleY, final float translationX, final float translationY,
+                    final float alpha, final float rotation) {
+        set(scaleX, scaleY, translationX, translationY, alpha, rotation, 0, 0);
+    }
+
+    /**
+     * Rotations around X and Y axes are applied in the same cases as alpha and rotation.
+     */
+    @SuppressWarnings("MethodWithTooManyParameters")
+    public void set(final float scaleX, final float scaleY, final float translationX, final float translationY,
+                    final float alpha, final float rotation, final float rotationX, final float rotationY) {
         mScaleX = scaleX;
         mScaleY = scaleY;
         mTranslationX = translationX;
         mTranslationY = translationY;
+        mAlpha = alpha;
+        mRotation = rotation;
+        mRotationX = rotationX;
+        mRotationY = rotationY;
+    }
+
+    public void set(final ItemTransformation other) {
+        set(other.mScaleX, other.mScaleY, other.mTranslationX, other.mTranslationY, other.mAlpha, other.mRotation,
+                other.mRotationX, other.mRotationY);
     }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.mig35.carousellayoutmanager;
+
+import android.view.View;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Transformations of all items of one layout pass. <br />
+ * <br />
+ * Items are stored in parallel arrays in layout order, so the center item is the last one.
+ * Only first {@link #getCount()} values of every array are valid. Arrays are reused between layout passes, so do not keep references to them. <br />
+ * <br />
+ * Input arrays describe items and should not be changed. Output arrays are filled with identity transformation before they are passed
+ * to calculation, so only changed values should be written there. All outputs, alpha and rotations too, are applied in both transform modes
+ * (see {@link CarouselLayoutManager#setPropertyTransformEnabled(boolean)}).
+ *
+ * @see CarouselGeometry
+ * @see CarouselLayoutManager.PostLayoutListener#transformChildren(ItemTransformationBatch)
+ */
+public final class ItemTransformationBatch {
+
+    int mCount;
+    int mOrientation;
+    int mMaxVisibleItems;
+    int mChildWidth;
+    int mChildHeight;
+    int mCardOffsetDimen;
+
+    int[] mItemAdapterPositions = new int[0];
+    float[] mItemPositionDiffs = new float[0];
+    View[] mChildren = new View[0];
+
+    float[] mScaleX = new float[0];
+    float[] mScaleY = new float[0];
+    float[] mTranslationX = new float[0];
+    float[] mTranslationY = new float[0];
+    float[] mAlpha = new float[0];
+    float[] mRotation = new float[0];
+    float[] mRotationX = new float[0];
+    float[] mRotationY = new float[0];
+    /**
+     * Items which outputs were written by {@link #setTransformation(int, ItemTransformation)}
+     */
+    boolean[] mTransformed = new boolean[0];
+
+    ItemTransformationBatch() {
+    }
+
+    /**
+     * @return count of items in this batch
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return {@link CarouselLayoutManager#VERTICAL} or {@link CarouselLayoutManager#HORIZONTAL}
+     */
+    public int getOrientation() {
+        return mOrientation;
+    }
+
+    /**
+     * @return current {@link CarouselLayoutManager#getMaxVisibleItems()}
+     */
+    public int getMaxVisibleItems() {
+        return mMaxVisibleItems;
+    }
+
+    /**
+     * @return decorated child width in px
+     */
+    public int getChildWidth() {
+        return mChildWidth;
+    }
+
+    /**
+     * @return decorated child height in px
+     */
+    public int getChildHeight() {
+        return mChildHeight;
+    }
+
+    /**
+     * @return size of area above center item in px
+     */
+    public int getCardOffsetDimen() {
+        return mCardOffsetDimen;
+    }
+
+    /**
+     * @return input: adapter positions of items
+     */
+    @NonNull
+    public int[] getItemAdapterPositions() {
+        return mItemAdapterPositions;
+    }
+
+    /**
+     * @return input: item differences with layout center line. see {@link CarouselOffsetCurve#convertItemPositionDiffToSmoothPositionDiff(float, int)}
+     */
+    @NonNull
+    public float[] getItemPositionDiffs() {
+        return mItemPositionDiffs;
+    }
+
+    /**
+     * @return input: children of items. they are set only for {@link CarouselLayoutManager.PostLayoutListener#transformChildren(ItemTransformationBatch)},
+     * {@link CarouselGeometry} is called before items are bound
+     */
+    @NonNull
+    public View[] getChildren() {
+        return mChildren;
+    }
+
+    /**
+     * @return output: item scale by X axis. 1 by default
+     */
+    @NonNull
+    public float[] getScaleX() {
+        return mScaleX;
+    }
+
+    /**
+     * @return output: item scale by Y axis. 1 by default
+     */
+    @NonNull
+    public float[] getScaleY() {
+        return mScaleY;
+    }
+
+    /**
+     * @return output: item translation by X axis in px. 0 by default
+     */
+    @NonNull
+    public float[] getTranslationX() {
+        return mTranslationX;
+    }
+
+    /**
+     * @return output: item translation by Y axis in px. 0 by default
+     */
+    @NonNull
+    public float[] getTranslationY() {
+        return mTranslationY;
+    }
+
+    /**
+     * @return output: item alpha. 1 by default
+     */
+    @NonNull
+    public float[] getAlpha() {
+        return mAlpha;
+    }
+
+    /**
+     * @return output: item rotation in degrees. 0 by default
+     */
+    @NonNull
+    public float[] getRotation() {
+        return mRotation;
+    }
+
+    /**
+     * @return output: item rotation around X axis in degrees. 0 by default
+     */
+    @NonNull
+    public float[] getRotationX() {
+        return mRotationX;
+    }
+
+    /**
+     * @return output: item rotation around Y axis in degrees. 0 by default
+     */
+    @NonNull
+    public float[] getRotationY() {
+        return mRotationY;
+    }
+
+    /**
+     * Prepares batch for new layout pass and fills outputs with identity transformation.
+     * Arrays are reallocated only if they are smaller then count.
+     */
+    @SuppressWarnings("MethodWithTooManyParameters")
+    void init(final int count, final int orientation, final int maxVisibleItems, final int childWidth, final int childHeight, final int cardOffsetDimen) {
+        if (mItemAdapterPositions.length < count) {
+            mItemAdapterPositions = new int[count];
+            mItemPositionDiffs = new float[count];
+            mChildren = new View[count];
+            mScaleX = new float[count];
+            mScaleY = new float[count];
+            mTranslationX = new float[count];
+            mTranslationY = new float[count];
+            mAlpha = new float[count];
+            mRotation = new float[count];
+            mRotationX = new float[count];
+            mRotationY = new float[count];
+            mTransformed = new boolean[count];
+        }
+        mCount = count;
+        mOrientation = orientation;
+        mMaxVisibleItems = maxVisibleItems;
+        mChildWidth = childWidth;
+        mChildHeight = childHeight;
+        mCardOffsetDimen = cardOffsetDimen;
+
+        Arrays.fill(mScaleX, 0, count, 1.0f);
+        Arrays.fill(mScaleY, 0, count, 1.0f);
+        Arrays.fill(mTranslationX, 0, count, 0);
+        Arrays.fill(mTranslationY, 0, count, 0);
+        Arrays.fill(mAlpha, 0, count, 1.0f);
+        Arrays.fill(mRotation, 0, count, 0);
+        Arrays.fill(mRotationX, 0, count, 0);
+        Arrays.fill(mRotationY, 0, count, 0);
+        Arrays.fill(mTransformed, 0, count, false);
+    }
+
+    /**
+     * Copies items and outputs of another batch. Children are not copied.
+     */
+    void set(@NonNull final ItemTransformationBatch batch) {
+        final int count = batch.mCount;
+        init(count, batch.mOrientation, batch.mMaxVisibleItems, batch.mChildWidth, batch.mChildHeight, batch.mCardOffsetDimen);
+        System.arraycopy(batch.mItemAdapterPositions, 0, mItemAdapterPositions, 0, count);
+        System.arraycopy(batch.mItemPositionDiffs, 0, mItemPositionDiffs, 0, count);
+        System.arraycopy(batch.mScaleX, 0, mScaleX, 0, count);
+        System.arraycopy(batch.mScaleY, 0, mScaleY, 0, count);
+        System.arraycopy(batch.mTranslationX, 0, mTranslationX, 0, count);
+        System.arraycopy(batch.mTranslationY, 0, mTranslationY, 0, count);
+        System.arraycopy(batch.mAlpha, 0, mAlpha, 0, count);
+        System.arraycopy(batch.mRotation, 0, mRotation, 0, count);
+        System.arraycopy(batch.mRotationX, 0, mRotationX, 0, count);
+        System.arraycopy(batch.mRotationY, 0, mRotationY, 0, count);
+        System.arraycopy(batch.mTransformed, 0, mTransformed, 0, count);
+    }
+
+    void setItem(final int index, final int itemAdapterPosition, final float itemPositionDiff) {
+        mItemAdapterPositions[index] = itemAdapterPosition;
+        mItemPositionDiffs[index] = itemPositionDiff;
+    }
+
+    /**
+     * Drops children references, so batch doesn't hold views after layout pass.
+     */
+    void clearChildren() {
+        Arrays.fill(mChildren, 0, mCount, null);
+    }
+
+    void setTransformation(final int index, @NonNull final ItemTransformation transformation) {
+        mScaleX[index] = transformation.mScaleX;
+        mScaleY[index] = transformation.mScaleY;
+        mTranslationX[index] = transformation.mTranslationX;
+        mTranslationY[index] = transformation.mTranslationY;
+        mAlpha[index] = transformation.mAlpha;
+        mRotation[index] = transformation.mRotation;
+        mRotationX[index] = transformation.mRotationX;
+        mRotationY[index] = transformation.mRotationY;
+        mTransformed[index] = true;
+    }
+
+    void getTransformation(final int index, @NonNull final ItemTransformation outTransformation) {
+        outTransformation.set(mScaleX[index], mScaleY[index], mTranslationX[index], mTranslationY[index],
+                mAlpha[index], mRotation[index], mRotationX[index], mRotationY[index]);
+    }
+
+    /**
+     * Removes items from batch. Order of the rest items is kept.
+     *
+     * @param removed removed[i] is true if item at i position should be removed
+     */
+    void removeItems(@NonNull final boolean[] removed) {
+        int count = 0;
+        for (int i = 0; i < mCount; ++i) {
+            if (!removed[i]) {
+                mItemAdapterPositions[count] = mItemAdapterPositions[i];
+                mItemPositionDiffs[count] = mItemPositionDiffs[i];
+                mScaleX[count] = mScaleX[i];
+                mScaleY[count] = mScaleY[i];
+                mTranslationX[count] = mTranslationX[i];
+                mTranslationY[count] = mTranslationY[i];
+                mAlpha[count] = mAlpha[i];
+                mRotation[count] = mRotation[i];
+                mRotationX[count] = mRotationX[i];
+                mRotationY[count] = mRotationY[i];
+                mTransformed[count] = mTransformed[i];
+                ++count;
+            }
+        }
+        mCount = count;
+    }
+}
\ No newline at end of file
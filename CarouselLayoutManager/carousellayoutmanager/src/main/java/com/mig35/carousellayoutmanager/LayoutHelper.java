@@ -0,0 +1,182 @@
+package com.mig35.carousellayoutmanager;
+
+/**
+ * Helper class that holds currently visible items.
+ * Generally this class fills this list. <br />
+ * <br />
+ * This class holds all scroll and maxVisible items state. It doesn't depend on any android framework class,
+ * so layout order math can be run and measured on a plain JVM. <br />
+ * <br />
+ * Layout order is stored in parallel arrays that are sized for maximum layout count and reused, so layout doesn't allocate anything.
+ *
+ * @see CarouselLayoutManager#getMaxVisibleItems()
+ */
+class LayoutHelper {
+
+    int mMaxVisibleItems;
+
+    long mScrollOffset;
+
+    /**
+     * Count of items in current layout order
+     */
+    int mLayoutCount;
+    /**
+     * Item adapter positions in layout order
+     */
+    int[] mItemAdapterPositions = new int[0];
+    /**
+     * Item center differences to layout center in layout order. If center of item is bellow layout center, then this value is greater then 0, else it is less.
+     */
+    float[] mItemPositionDiffs = new float[0];
+
+    private final PositionSet mLayoutPositions = new PositionSet();
+    /**
+     * Layout order for the current center item. It is rebuilt only if center item or layout config is changed
+     */
+    private final LayoutPlan mPlan = new LayoutPlan();
+
+    LayoutHelper(final int maxVisibleItems) {
+        mMaxVisibleItems = maxVisibleItems;
+    }
+
+    /**
+     * Fills layout order for given scroll position. Center item is placed last, so it is layout last and is drawn over other items.
+     * Non visible items will not be there.
+     *
+     * @param currentScrollPosition current scroll position this is a value that indicates position of center item
+     *                              (if this value is int, then center item is really in the center of the layout, else it is near state).
+     *                              Be aware that this value can be in any range is it is cycle layout
+     * @param itemsCount            adapter items count
+     * @param circleLayout          true if layout is in cycle mode
+     * @param extraVisibleItems     items count to add on each side of maxVisible items
+     */
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    void generateLayoutOrder(final double currentScrollPosition, final int itemsCount, final boolean circleLayout, final int extraVisibleItems) {
+        final int visibleItems = mMaxVisibleItems + extraVisibleItems;
+        final double absCurrentScrollPosition = makeScrollPositionInRange0ToCount(currentScrollPosition, itemsCount);
+        final int centerItem = (int) Math.round(absCurrentScrollPosition);
+
+        final LayoutPlan plan = mPlan;
+        if (!plan.matches(centerItem, itemsCount, circleLayout, visibleItems)) {
+            plan.build(centerItem, itemsCount, circleLayout, visibleItems);
+        }
+
+        final int layoutCount = plan.mLayoutCount;
+        initLayoutOrder(layoutCount);
+
+        final double centerItemDiff = centerItem - absCurrentScrollPosition;
+        final int[] itemAdapterPositions = plan.mItemAdapterPositions;
+        final int[] itemCenterDistances = plan.mItemCenterDistances;
+        for (int i = 0; i < layoutCount; ++i) {
+            setLayoutOrder(i, itemAdapterPositions[i], (float) (itemCenterDistances[i] + centerItemDiff));
+        }
+    }
+
+    /**
+     * Called before any fill calls. Arrays are reallocated only if they are smaller then maximum layout count for current maxVisible items.
+     *
+     * @param layoutCount items count that will be layout
+     */
+    void initLayoutOrder(final int layoutCount) {
+        mLayoutPositions.clear(layoutCount);
+        if (mItemAdapterPositions.length < layoutCount) {
+            final int capacity = Math.max(layoutCount, mMaxVisibleItems * 2 + 1);
+            mItemAdapterPositions = new int[capacity];
+            mItemPositionDiffs = new float[capacity];
+        }
+        mLayoutCount = layoutCount;
+    }
+
+    /**
+     * Called during layout generation process of filling this list. Should be called only after {@link #initLayoutOrder(int)} method call.
+     *
+     * @param arrayPosition       position in layout order
+     * @param itemAdapterPosition adapter position of item for future data filling logic
+     * @param itemPositionDiff    difference of current item scroll position and center item position.
+     *                            if this is a center item and it is in real center of layout, then this will be 0.
+     *                            if current layout is not in the center, then this value will never be int.
+     *                            if this item center is bellow layout center line then this value is greater then 0,
+     *                            else less then 0.
+     */
+    void setLayoutOrder(final int arrayPosition, final int itemAdapterPosition, final float itemPositionDiff) {
+        mItemAdapterPositions[arrayPosition] = itemAdapterPosition;
+        mItemPositionDiffs[arrayPosition] = itemPositionDiff;
+        mLayoutPositions.add(itemAdapterPosition);
+    }
+
+    /**
+     * Copies layout order of another helper, for example the one that was built by {@link LayoutPlanner}.
+     */
+    void setLayoutOrder(final LayoutHelper layoutHelper) {
+        final int layoutCount = layoutHelper.mLayoutCount;
+        initLayoutOrder(layoutCount);
+        for (int i = 0; i < layoutCount; ++i) {
+            setLayoutOrder(i, layoutHelper.mItemAdapterPositions[i], layoutHelper.mItemPositionDiffs[i]);
+        }
+    }
+
+    /**
+     * Removes items from layout order. Order of the rest items is kept.
+     *
+     * @param removed removed[i] is true if item at i position in layout order should be removed
+     */
+    void removeLayoutOrder(final boolean[] removed) {
+        mLayoutPositions.clear(mLayoutCount);
+        int layoutCount = 0;
+        for (int i = 0; i < mLayoutCount; ++i) {
+            if (!removed[i]) {
+                mItemAdapterPositions[layoutCount] = mItemAdapterPositions[i];
+                mItemPositionDiffs[layoutCount] = mItemPositionDiffs[i];
+                mLayoutPositions.add(mItemAdapterPositions[i]);
+                ++layoutCount;
+            }
+        }
+        mLayoutCount = layoutCount;
+    }
+
+    /**
+     * Checks is this screen Layout has this adapterPosition view in layout
+     *
+     * @param adapterPosition adapter position of item for future data filling logic
+     * @return true is adapterItem is in layout
+     */
+    boolean hasAdapterPosition(final int adapterPosition) {
+        return mLayoutPositions.contains(adapterPosition);
+    }
+
+    /**
+     * @param itemPositionDiff   item difference with layout center line
+     * @param smoothPositionDiff result of {@link CarouselOffsetCurve} for this difference
+     * @param cardOffsetDimen    size of area above center item
+     * @return item offset from layout center line in px
+     * @see CarouselLayoutManager#getCardOffsetByPositionDiff(float)
+     */
+    static int getCardOffset(final float itemPositionDiff, final double smoothPositionDiff, final int cardOffsetDimen) {
+        //noinspection NumericCastThatLosesPrecision
+        return (int) Math.round(Math.signum(itemPositionDiff) * cardOffsetDimen * smoothPositionDiff);
+    }
+
+    /**
+     * Helper method that make scroll in range of [0, count). Generally this method is needed only for cycle layout.
+     * This method works in constant time for any scroll position and count.
+     *
+     * @param currentScrollPosition any scroll position range.
+     * @param count                 adapter items count
+     * @return good scroll position in range of [0, count)
+     */
+    static double makeScrollPositionInRange0ToCount(final double currentScrollPosition, final int count) {
+        if (0 >= count) {
+            return currentScrollPosition;
+        }
+        double absCurrentScrollPosition = currentScrollPosition % count;
+        if (0 > absCurrentScrollPosition) {
+            absCurrentScrollPosition += count;
+        }
+        // item with scroll position close to count is the first item
+        if (Math.round(absCurrentScrollPosition) >= count) {
+            absCurrentScrollPosition -= count;
+        }
+        return absCurrentScrollPosition;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.Arrays;
+
+/**
+ * Metrics of one layout pass of {@link CarouselLayoutManager}. <br />
+ * <br />
+ * This object is reused between layout passes, so do not keep a reference to it after
+ * {@link CarouselLayoutManager.OnLayoutMetricsListener#onLayoutMetrics(LayoutMetrics)} returns. Copy needed values instead.
+ *
+ * @see CarouselLayoutManager#setOnLayoutMetricsListener(CarouselLayoutManager.OnLayoutMetricsListener)
+ * @see LayoutMetricsRecorder
+ */
+public final class LayoutMetrics {
+
+    /**
+     * Time of layout order generation: which items are visible and in what order they are placed.
+     */
+    public static final int PHASE_LAYOUT_ORDER = 0;
+    /**
+     * Time of getting views for positions from recycler, attaching and measuring them. Adapter bind time is included here.
+     */
+    public static final int PHASE_BIND = 1;
+    /**
+     * Time of {@link CarouselLayoutManager.PostLayoutListener} transformations and child layout.
+     */
+    public static final int PHASE_TRANSFORM = 2;
+    /**
+     * Time of detaching, scrapping and recycling views that are not in layout any more.
+     */
+    public static final int PHASE_RECYCLE = 3;
+
+    public static final int PHASE_COUNT = 4;
+
+    private final long[] mPhaseNanos = new long[PHASE_COUNT];
+    private int mBoundViewCount;
+    private int mReusedViewCount;
+    private int mRecycledViewCount;
+    private int mCulledItemCount;
+
+    LayoutMetrics() {
+    }
+
+    /**
+     * @param phase one of PHASE_* constants
+     * @return time spent in this phase during layout pass in nanoseconds
+     */
+    public long getPhaseNanos(final int phase) {
+        return mPhaseNanos[phase];
+    }
+
+    /**
+     * @return time spent in all phases during layout pass in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = 0;
+        for (final long phaseNanos : mPhaseNanos) {
+            total += phaseNanos;
+        }
+        return total;
+    }
+
+    /**
+     * @return count of views that were fetched from recycler and attached, so they were possibly bound by adapter
+     */
+    public int getBoundViewCount() {
+        return mBoundViewCount;
+    }
+
+    /**
+     * @return count of already attached views that were kept during layout pass
+     */
+    public int getReusedViewCount() {
+        return mReusedViewCount;
+    }
+
+    /**
+     * @return count of views that were recycled during layout pass
+     */
+    public int getRecycledViewCount() {
+        return mRecycledViewCount;
+    }
+
+    /**
+     * @return count of items that were hidden behind other items and were not laid out
+     * @see CarouselLayoutManager#setOcclusionCullingEnabled(boolean)
+     */
+    public int getCulledItemCount() {
+        return mCulledItemCount;
+    }
+
+    void reset() {
+        Arrays.fill(mPhaseNanos, 0);
+        mBoundViewCount = 0;
+        mReusedViewCount = 0;
+        mRecycledViewCount = 0;
+        mCulledItemCount = 0;
+    }
+
+    void addPhaseNanos(final int phase, final long nanos) {
+        mPhaseNanos[phase] += nanos;
+    }
+
+    void onViewBound() {
+        ++mBoundViewCount;
+    }
+
+    void onViewReused() {
+        ++mReusedViewCount;
+    }
+
+    void onViewsRecycled(final int count) {
+        mRecycledViewCount += count;
+    }
+
+    void onItemsCulled(final int count) {
+        mCulledItemCount += count;
+    }
+}
\ No newline at end of file
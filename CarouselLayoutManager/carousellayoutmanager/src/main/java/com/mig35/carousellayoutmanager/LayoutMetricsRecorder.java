@@ -0,0 +1,141 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselLayoutManager.OnLayoutMetricsListener} that keeps the last layout passes metrics and calculates percentiles of them. <br />
+ * <br />
+ * Recording doesn't allocate anything. Percentiles are calculated on demand, so call them when metrics are exported, not during scroll.
+ */
+public class LayoutMetricsRecorder implements CarouselLayoutManager.OnLayoutMetricsListener {
+
+    private static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * Percentiles can be requested for this value as well as for {@link LayoutMetrics} PHASE_* values.
+     */
+    public static final int TOTAL = LayoutMetrics.PHASE_COUNT;
+
+    private final int mCapacity;
+    // samples[metric][pass]
+    private final long[][] mSamples;
+    private final long[] mSortBuffer;
+    private int mNextSample;
+    private int mSampleCount;
+
+    private long mBoundViewCount;
+    private long mReusedViewCount;
+    private long mRecycledViewCount;
+    private long mCulledItemCount;
+
+    @SuppressWarnings("unused")
+    public LayoutMetricsRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity count of last layout passes that are used for percentiles calculation
+     */
+    public LayoutMetricsRecorder(final int capacity) {
+        if (0 >= capacity) {
+            throw new IllegalArgumentException("capacity can't be less then 1");
+        }
+        mCapacity = capacity;
+        mSamples = new long[TOTAL + 1][capacity];
+        mSortBuffer = new long[capacity];
+    }
+
+    @Override
+    public void onLayoutMetrics(@NonNull final LayoutMetrics metrics) {
+        for (int phase = 0; phase < LayoutMetrics.PHASE_COUNT; ++phase) {
+            mSamples[phase][mNextSample] = metrics.getPhaseNanos(phase);
+        }
+        mSamples[TOTAL][mNextSample] = metrics.getTotalNanos();
+        mNextSample = (mNextSample + 1) % mCapacity;
+        mSampleCount = Math.min(mSampleCount + 1, mCapacity);
+
+        mBoundViewCount += metrics.getBoundViewCount();
+        mReusedViewCount += metrics.getReusedViewCount();
+        mRecycledViewCount += metrics.getRecycledViewCount();
+        mCulledItemCount += metrics.getCulledItemCount();
+    }
+
+    /**
+     * @return count of layout passes that are used for percentiles calculation
+     */
+    @SuppressWarnings("unused")
+    public int getSampleCount() {
+        return mSampleCount;
+    }
+
+    /**
+     * Calculates percentile of the last recorded layout passes using nearest-rank method.
+     *
+     * @param metric     {@link #TOTAL} or one of {@link LayoutMetrics} PHASE_* constants
+     * @param percentile percentile in [0, 100] range
+     * @return time in nanoseconds or 0 if nothing was recorded yet
+     */
+    @SuppressWarnings("unused")
+    public long getPercentileNanos(final int metric, final double percentile) {
+        if (0 > metric || TOTAL < metric) {
+            throw new IllegalArgumentException("unknown metric: " + metric);
+        }
+        if (0 > percentile || 100 < percentile) {
+            throw new IllegalArgumentException("percentile should be in [0, 100] range");
+        }
+        if (0 == mSampleCount) {
+            return 0;
+        }
+        System.arraycopy(mSamples[metric], 0, mSortBuffer, 0, mSampleCount);
+        Arrays.sort(mSortBuffer, 0, mSampleCount);
+        final int rank = (int) Math.ceil(percentile / 100 * mSampleCount);
+        return mSortBuffer[Math.max(rank - 1, 0)];
+    }
+
+    /**
+     * @return count of views bound since creation or last {@link #reset()}
+     */
+    @SuppressWarnings("unused")
+    public long getBoundViewCount() {
+        return mBoundViewCount;
+    }
+
+    /**
+     * @return count of views reused since creation or last {@link #reset()}
+     */
+    @SuppressWarnings("unused")
+    public long getReusedViewCount() {
+        return mReusedViewCount;
+    }
+
+    /**
+     * @return count of views recycled since creation or last {@link #reset()}
+     */
+    @SuppressWarnings("unused")
+    public long getRecycledViewCount() {
+        return mRecycledViewCount;
+    }
+
+    /**
+     * @return count of items culled since creation or last {@link #reset()}
+     */
+    @SuppressWarnings("unused")
+    public long getCulledItemCount() {
+        return mCulledItemCount;
+    }
+
+    /**
+     * Removes all recorded samples and counters. Can be called after metrics were exported.
+     */
+    @SuppressWarnings("unused")
+    public void reset() {
+        mNextSample = 0;
+        mSampleCount = 0;
+        mBoundViewCount = 0;
+        mReusedViewCount = 0;
+        mRecycledViewCount = 0;
+        mCulledItemCount = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.mig35.carousellayoutmanager;
+
+/**
+ * Layout order of items for one center item. <br />
+ * <br />
+ * Item position diffs depend on exact scroll position, but item positions and their distances to the center item depend only on the center item.
+ * So one plan is valid for all scroll positions that have the same center item and is rebuilt only when center item is changed.
+ *
+ * @see LayoutHelper
+ */
+final class LayoutPlan {
+
+    private int mCenterItem = -1;
+    private int mItemsCount;
+    private boolean mCircleLayout;
+    private int mVisibleItems;
+
+    /**
+     * Count of items in layout order
+     */
+    int mLayoutCount;
+    /**
+     * Item adapter positions in layout order
+     */
+    int[] mItemAdapterPositions = new int[0];
+    /**
+     * Item distances to the center item in layout order. Item position diff is this distance plus center item diff.
+     */
+    int[] mItemCenterDistances = new int[0];
+
+    /**
+     * Builds layout order. Center item is placed last, so it is layout last and is drawn over other items.
+     *
+     * @param centerItem   adapter position of center item
+     * @param itemsCount   adapter items count
+     * @param circleLayout true if layout is in cycle mode
+     * @param visibleItems items count on each side of center item
+     */
+    void build(final int centerItem, final int itemsCount, final boolean circleLayout, final int visibleItems) {
+        mCenterItem = centerItem;
+        mItemsCount = itemsCount;
+        mCircleLayout = circleLayout;
+        mVisibleItems = visibleItems;
+
+        if (circleLayout && 1 < itemsCount) {
+            final int layoutCount = Math.min(visibleItems * 2 + 1, itemsCount);
+
+            initLayoutOrder(layoutCount);
+
+            final int countLayoutHalf = layoutCount / 2;
+            // before center item
+            for (int i = 1; i <= countLayoutHalf; ++i) {
+                setLayoutOrder(countLayoutHalf - i, (centerItem - i + itemsCount) % itemsCount, -i);
+            }
+            // after center item
+            for (int i = layoutCount - 1; i >= countLayoutHalf + 1; --i) {
+                setLayoutOrder(i - 1, (centerItem - i + layoutCount) % itemsCount, layoutCount - i);
+            }
+            setLayoutOrder(layoutCount - 1, centerItem, 0);
+
+        } else {
+            final int firstVisible = Math.max(centerItem - visibleItems, 0);
+            final int lastVisible = Math.min(centerItem + visibleItems, itemsCount - 1);
+            final int layoutCount = lastVisible - firstVisible + 1;
+
+            initLayoutOrder(layoutCount);
+
+            for (int i = firstVisible; i <= lastVisible; ++i) {
+                if (i == centerItem) {
+                    setLayoutOrder(layoutCount - 1, i, 0);
+                } else if (i < centerItem) {
+                    setLayoutOrder(i - firstVisible, i, i - centerItem);
+                } else {
+                    setLayoutOrder(layoutCount - (i - centerItem) - 1, i, i - centerItem);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if this plan was built for the same arguments
+     * @see #build(int, int, boolean, int)
+     */
+    boolean matches(final int centerItem, final int itemsCount, final boolean circleLayout, final int visibleItems) {
+        return mCenterItem == centerItem && mItemsCount == itemsCount && mCircleLayout == circleLayout && mVisibleItems == visibleItems;
+    }
+
+    private void initLayoutOrder(final int layoutCount) {
+        if (mItemAdapterPositions.length < layoutCount) {
+            mItemAdapterPositions = new int[layoutCount];
+            mItemCenterDistances = new int[layoutCount];
+        }
+        mLayoutCount = layoutCount;
+    }
+
+    private void setLayoutOrder(final int arrayPosition, final int itemAdapterPosition, final int itemCenterDistance) {
+        mItemAdapterPositions[arrayPosition] = itemAdapterPosition;
+        mItemCenterDistances[arrayPosition] = itemCenterDistance;
+    }
+}
\ No newline at end of file
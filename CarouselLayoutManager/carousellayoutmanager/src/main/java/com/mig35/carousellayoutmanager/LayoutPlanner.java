@@ -0,0 +1,124 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Builds {@link FramePlan} for the next scroll frame on background executor. <br />
+ * <br />
+ * Plans are double buffered: worker builds plan only in back buffer and swaps it with front one when it is ready.
+ * Layout uses front plan only if it was built for exactly the same inputs, else layout is calculated synchronously,
+ * so layout result doesn't depend on the executor. <br />
+ * <br />
+ * Worker calls {@link CarouselGeometry} or {@link CarouselLayoutManager.PostLayoutListener} of the plan, so only pure ones can be planned.
+ * Main thread calls {@link #finish()} before it uses them or reads front plan: task that is not started yet is cancelled
+ * and running task is waited for, so nothing is called from two threads at once.
+ */
+final class LayoutPlanner {
+
+    private final Executor mExecutor;
+    private final Object mLock = new Object();
+
+    private FramePlan mFrontPlan = new FramePlan();
+    private FramePlan mBackPlan = new FramePlan();
+    /**
+     * True if task was given to executor and is not started yet
+     */
+    private boolean mQueued;
+    private boolean mRunning;
+    private boolean mCancelled;
+
+    private final Runnable mPlanTask = new Runnable() {
+        @Override
+        public void run() {
+            final FramePlan plan;
+            synchronized (mLock) {
+                mQueued = false;
+                if (mCancelled) {
+                    return;
+                }
+                mRunning = true;
+                plan = mBackPlan;
+            }
+            try {
+                // back plan is owned by this task until it is swapped
+                plan.build();
+            } finally {
+                synchronized (mLock) {
+                    mBackPlan = mFrontPlan;
+                    mFrontPlan = plan;
+                    mRunning = false;
+                    mLock.notifyAll();
+                }
+            }
+        }
+    };
+
+    LayoutPlanner(@NonNull final Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Cancels planning that is not started and waits for running one. Should be called from main thread.
+     */
+    void finish() {
+        boolean interrupted = false;
+        synchronized (mLock) {
+            mCancelled = true;
+            while (mRunning) {
+                try {
+                    mLock.wait();
+                } catch (final InterruptedException ignored) {
+                    // listener and geometry can't be used until worker leaves them
+                    interrupted = true;
+                }
+            }
+            // cancelled task doesn't need child any more
+            mBackPlan.mSampleChild = null;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Should be called from main thread after {@link #finish()}.
+     *
+     * @return ready plan built for the same inputs as request or null if there is no such plan.
+     * It can be read until the next {@link #schedule(FramePlan)} call
+     */
+    @Nullable
+    FramePlan getPlan(@NonNull final FramePlan request) {
+        synchronized (mLock) {
+            return mFrontPlan.matches(request) ? mFrontPlan : null;
+        }
+    }
+
+    /**
+     * Starts building plan for request inputs if it is not ready yet. Should be called from main thread.
+     */
+    void schedule(@NonNull final FramePlan request) {
+        synchronized (mLock) {
+            if (mRunning || mFrontPlan.matches(request)) {
+                return;
+            }
+            mBackPlan.setInputs(request);
+            mCancelled = false;
+            if (mQueued) {
+                // queued task isn't started, so it will build these inputs
+                return;
+            }
+            mQueued = true;
+        }
+        try {
+            mExecutor.execute(mPlanTask);
+        } catch (final RejectedExecutionException ignored) {
+            synchronized (mLock) {
+                mQueued = false;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.mig35.carousellayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselOffsetCurve} that samples another curve into a table and uses linear interpolation between samples. <br />
+ * <br />
+ * Table covers [0, maxVisibleItems + 1] differences and is rebuilt only if maxVisibleItems or card offset dimension was changed.
+ * Table resolution depends on card offset dimension, so interpolated offsets differs from the source curve less then a pixel.
+ * Differences outside of the table are calculated by the source curve. <br />
+ * <br />
+ * Use this class to wrap curves that are expensive to calculate.
+ */
+public class LookupTableOffsetCurve extends CarouselOffsetCurve {
+
+    private static final int MIN_SAMPLES_PER_ITEM = 32;
+    private static final int MAX_SAMPLES_PER_ITEM = 2048;
+    private static final int INVALID_MAX_VISIBLE_ITEMS = -1;
+
+    @NonNull
+    private final CarouselOffsetCurve mSourceCurve;
+
+    private float[] mTable;
+    private int mSamplesPerItem;
+    private int mTableMaxVisibleItems = INVALID_MAX_VISIBLE_ITEMS;
+    private int mTableCardOffsetDimen;
+
+    public LookupTableOffsetCurve(@NonNull final CarouselOffsetCurve sourceCurve) {
+        mSourceCurve = sourceCurve;
+    }
+
+    @Override
+    @SuppressWarnings("InstanceMethodNamingConvention")
+    public double convertItemPositionDiffToSmoothPositionDiff(final float itemPositionDiff, final int maxVisibleItems) {
+        if (mTableMaxVisibleItems != maxVisibleItems) {
+            buildTable(maxVisibleItems, mTableCardOffsetDimen);
+        }
+        final float[] table = mTable;
+
+        final float tablePosition = Math.abs(itemPositionDiff) * mSamplesPerItem;
+        //noinspection NumericCastThatLosesPrecision
+        final int index = (int) tablePosition;
+        if (index + 1 >= table.length) {
+            return mSourceCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, maxVisibleItems);
+        }
+        final float fraction = tablePosition - index;
+        return table[index] + (table[index + 1] - table[index]) * fraction;
+    }
+
+    @Override
+    public void onLayoutChanged(final int maxVisibleItems, final int cardOffsetDimen) {
+        mSourceCurve.onLayoutChanged(maxVisibleItems, cardOffsetDimen);
+        if (mTableMaxVisibleItems != maxVisibleItems || mTableCardOffsetDimen != cardOffsetDimen) {
+            buildTable(maxVisibleItems, cardOffsetDimen);
+        }
+    }
+
+    private void buildTable(final int maxVisibleItems, final int cardOffsetDimen) {
+        // one sample per px of card offset keeps interpolation error bellow one px even near curve breaks
+        final int samplesPerItem = Math.max(MIN_SAMPLES_PER_ITEM, Math.min(MAX_SAMPLES_PER_ITEM, cardOffsetDimen));
+        final float[] table = new float[(maxVisibleItems + 1) * samplesPerItem + 1];
+        for (int i = 0, length = table.length; i < length; ++i) {
+            //noinspection NumericCastThatLosesPrecision
+            table[i] = (float) mSourceCurve.convertItemPositionDiffToSmoothPositionDiff(1.0f * i / samplesPerItem, maxVisibleItems);
+        }
+
+        mSamplesPerItem = samplesPerItem;
+        mTable = table;
+        mTableMaxVisibleItems = maxVisibleItems;
+        mTableCardOffsetDimen = cardOffsetDimen;
+    }
+}
\ No newline at end of file
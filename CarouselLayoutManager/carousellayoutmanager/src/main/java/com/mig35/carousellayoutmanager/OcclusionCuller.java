@@ -0,0 +1,132 @@
+package com.mig35.carousellayoutmanager;
+
+/**
+ * Finds items that are hidden behind items drawn over them. <br />
+ * <br />
+ * Items are given in layout order, so every item is drawn over all items before it. Item bounds are rectangles that are set
+ * along scroll axis (main) and cross axis. Item can hide another one only if it is opaque and covers the whole cross axis size of it,
+ * so hidden part of item is the union of main axis intervals of such items. This is exact for carousels where back items are not
+ * bigger then front ones in cross axis and it never culls visible items in any other case. <br />
+ * <br />
+ * This class doesn't depend on any android framework class and doesn't allocate anything while its capacity is enough.
+ *
+ * @see CarouselLayoutManager#setOcclusionCullingEnabled(boolean)
+ */
+final class OcclusionCuller {
+
+    /**
+     * Count of items in layout order
+     */
+    int mCount;
+    /**
+     * Items that should be removed from layout order. Valid after {@link #cull(float)} call.
+     */
+    boolean[] mCulled = new boolean[0];
+
+    private float[] mMainStarts = new float[0];
+    private float[] mMainEnds = new float[0];
+    private float[] mCrossStarts = new float[0];
+    private float[] mCrossEnds = new float[0];
+    private boolean[] mOpaque = new boolean[0];
+    private boolean[] mCullable = new boolean[0];
+
+    // covering intervals of one item sorted by start
+    private float[] mIntervalStarts = new float[0];
+    private float[] mIntervalEnds = new float[0];
+
+    /**
+     * Called before any {@link #setItem(int, float, float, float, float, boolean, boolean)} calls.
+     *
+     * @param count items count in layout order
+     */
+    void init(final int count) {
+        if (mCulled.length < count) {
+            mCulled = new boolean[count];
+            mMainStarts = new float[count];
+            mMainEnds = new float[count];
+            mCrossStarts = new float[count];
+            mCrossEnds = new float[count];
+            mOpaque = new boolean[count];
+            mCullable = new boolean[count];
+            mIntervalStarts = new float[count];
+            mIntervalEnds = new float[count];
+        }
+        mCount = count;
+    }
+
+    /**
+     * @param index    item position in layout order
+     * @param opaque   true if item hides everything behind its bounds
+     * @param cullable true if item can be culled
+     */
+    @SuppressWarnings("MethodWithTooManyParameters")
+    void setItem(final int index, final float mainStart, final float mainEnd, final float crossStart, final float crossEnd,
+                 final boolean opaque, final boolean cullable) {
+        mMainStarts[index] = mainStart;
+        mMainEnds[index] = mainEnd;
+        mCrossStarts[index] = crossStart;
+        mCrossEnds[index] = crossEnd;
+        mOpaque[index] = opaque;
+        mCullable[index] = cullable;
+    }
+
+    /**
+     * Fills {@link #mCulled} for all items. Culled items don't hide other items, because they are not drawn.
+     *
+     * @param visibleThreshold item is culled if its visible part is not bigger then this part of its main axis size
+     * @return count of culled items
+     */
+    int cull(final float visibleThreshold) {
+        int culledCount = 0;
+        // items are drawn over items before them, so items over the current one are already checked
+        for (int i = mCount - 1; 0 <= i; --i) {
+            mCulled[i] = false;
+            final float start = mMainStarts[i];
+            final float end = mMainEnds[i];
+            if (!mCullable[i] || start >= end) {
+                continue;
+            }
+
+            int intervalCount = 0;
+            for (int j = i + 1; j < mCount; ++j) {
+                if (mCulled[j] || !mOpaque[j] || mCrossStarts[j] > mCrossStarts[i] || mCrossEnds[j] < mCrossEnds[i]) {
+                    continue;
+                }
+                final float coverStart = Math.max(start, mMainStarts[j]);
+                final float coverEnd = Math.min(end, mMainEnds[j]);
+                if (coverStart < coverEnd) {
+                    insertInterval(intervalCount, coverStart, coverEnd);
+                    ++intervalCount;
+                }
+            }
+
+            float covered = 0;
+            float coveredTill = start;
+            for (int k = 0; k < intervalCount; ++k) {
+                final float intervalStart = Math.max(mIntervalStarts[k], coveredTill);
+                final float intervalEnd = mIntervalEnds[k];
+                if (intervalEnd > intervalStart) {
+                    covered += intervalEnd - intervalStart;
+                    coveredTill = intervalEnd;
+                }
+            }
+
+            if ((end - start - covered) / (end - start) <= visibleThreshold) {
+                mCulled[i] = true;
+                ++culledCount;
+            }
+        }
+        return culledCount;
+    }
+
+    private void insertInterval(final int intervalCount, final float start, final float end) {
+        int index = intervalCount;
+        while (0 < index && mIntervalStarts[index - 1] > start) {
+            mIntervalStarts[index] = mIntervalStarts[index - 1];
+            mIntervalEnds[index] = mIntervalEnds[index - 1];
+            --index;
+        }
+        mIntervalStarts[index] = start;
+        mIntervalEnds[index] = end;
+    }
+}
\ No newline at end of file
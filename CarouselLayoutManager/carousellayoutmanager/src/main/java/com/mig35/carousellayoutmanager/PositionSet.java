@@ -0,0 +1,84 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.Arrays;
+
+/**
+ * Set of adapter positions with constant time add and contains operations. <br />
+ * <br />
+ * This set is reused between layout passes, so it doesn't allocate anything while its capacity is enough for layout items count.
+ * Negative positions are never stored.
+ */
+final class PositionSet {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] mKeys;
+    private int mMask;
+    private int mSize;
+
+    PositionSet() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Removes all positions and makes sure that count positions can be added without reallocation.
+     *
+     * @param count maximum positions count that will be added before next clear
+     */
+    void clear(final int count) {
+        // keep load factor not greater then 0.5
+        int capacity = MIN_CAPACITY;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        if (mKeys.length < capacity) {
+            allocate(capacity);
+        } else if (0 != mSize) {
+            Arrays.fill(mKeys, EMPTY);
+            mSize = 0;
+        }
+    }
+
+    void add(final int position) {
+        if (0 > position) {
+            return;
+        }
+        int index = indexFor(position);
+        while (EMPTY != mKeys[index]) {
+            if (position == mKeys[index]) {
+                return;
+            }
+            index = (index + 1) & mMask;
+        }
+        mKeys[index] = position;
+        ++mSize;
+    }
+
+    boolean contains(final int position) {
+        if (0 > position) {
+            return false;
+        }
+        int index = indexFor(position);
+        while (EMPTY != mKeys[index]) {
+            if (position == mKeys[index]) {
+                return true;
+            }
+            index = (index + 1) & mMask;
+        }
+        return false;
+    }
+
+    private int indexFor(final int position) {
+        // fibonacci hashing spreads sequential positions over the whole table
+        final int hash = position * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mMask;
+    }
+
+    private void allocate(final int capacity) {
+        mKeys = new int[capacity];
+        Arrays.fill(mKeys, EMPTY);
+        mMask = capacity - 1;
+        mSize = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.mig35.carousellayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link CarouselGeometry} that makes stacked deck of items. <br />
+ * <br />
+ * Items after the center one are stacked under it: every next item is smaller and peeks out of the previous one by peek part of item size.
+ * Items before the center one are moved away and fade out, so the center item is taken from the deck when layout is scrolled.
+ */
+public class StackGeometry extends CarouselGeometry {
+
+    private static final float DEFAULT_PEEK = 0.06f;
+    private static final float DEFAULT_SCALE_STEP = 0.05f;
+
+    private final float mPeek;
+    private final float mScaleStep;
+
+    @SuppressWarnings("unused")
+    public StackGeometry() {
+        this(DEFAULT_PEEK, DEFAULT_SCALE_STEP);
+    }
+
+    /**
+     * @param peek      part of item size that every stacked item peeks out of the previous one. can't be less then 0
+     * @param scaleStep scale difference of neighbour stacked items. should be in [0, 1) range
+     */
+    public StackGeometry(final float peek, final float scaleStep) {
+        if (0 > peek) {
+            throw new IllegalArgumentException("peek can't be less then 0");
+        }
+        if (0 > scaleStep || 1 <= scaleStep) {
+            throw new IllegalArgumentException("scaleStep should be in [0, 1) range");
+        }
+        mPeek = peek;
+        mScaleStep = scaleStep;
+    }
+
+    /**
+     * Peek and scale step never change, so stack can be planned in background.
+     */
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    public void transformItems(@NonNull final ItemTransformationBatch batch) {
+        final boolean vertical = CarouselLayoutManager.VERTICAL == batch.getOrientation();
+        final int itemSize = vertical ? batch.getChildHeight() : batch.getChildWidth();
+        final float peek = itemSize * mPeek;
+
+        final float[] itemPositionDiffs = batch.getItemPositionDiffs();
+        final float[] translations = vertical ? batch.getTranslationY() : batch.getTranslationX();
+        final float[] scalesX = batch.getScaleX();
+        final float[] scalesY = batch.getScaleY();
+        final float[] alphas = batch.getAlpha();
+        for (int i = 0, count = batch.getCount(); i < count; ++i) {
+            final float itemPositionDiff = itemPositionDiffs[i];
+            if (0 <= itemPositionDiff) {
+                final float scale = Math.max(0, 1 - itemPositionDiff * mScaleStep);
+                // scaled item edge is placed peek after the edge of the previous item
+                translations[i] = itemSize * (1 - scale) / 2 + itemPositionDiff * peek;
+                scalesX[i] = scale;
+                scalesY[i] = scale;
+            } else {
+                // item leaves the center one before the next item becomes center and is drawn over it
+                translations[i] = itemPositionDiff * itemSize * 2;
+                alphas[i] = Math.max(0, 1 + itemPositionDiff * 2);
+            }
+        }
+    }
+}
\ No newline at end of file
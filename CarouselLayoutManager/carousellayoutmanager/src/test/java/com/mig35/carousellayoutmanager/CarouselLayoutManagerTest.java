@@ -0,0 +1,725 @@
+package com.mig35.carousellayoutmanager;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Behavior of {@link CarouselLayoutManager} inside a real {@link RecyclerView}. <br />
+ * <br />
+ * Frame budget is checked as work done per scroll frame. One frame is one scrollHorizontallyBy call of the layout manager:
+ * views added, bound, recycled, measured and laid out, and bytes allocated on the main thread.
+ * Wall time under Robolectric doesn't say anything about device frame time, so it is not asserted.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class CarouselLayoutManagerTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEM_SIZE = 200;
+    private static final int ITEMS_COUNT = 100;
+    private static final int MAX_VISIBLE_ITEMS = CarouselLayoutManager.MAX_VISIBLE_ITEMS;
+
+    private static final int WARM_UP_FRAMES = 100;
+    private static final int MEASURED_FRAMES = 200;
+    /**
+     * Layout manager itself allocates nothing during steady scroll. The budget leaves room for Robolectric shadows of child layout calls.
+     */
+    private static final long FRAME_ALLOCATION_BUDGET_BYTES = 64;
+
+    private RecyclerView mRecyclerView;
+    private CountingLayoutManager mLayoutManager;
+    private TestAdapter mAdapter;
+
+    private final FrameCounters mTotal = new FrameCounters();
+    private final FrameCounters mFrameStart = new FrameCounters();
+    private final FrameCounters mMaxFrame = new FrameCounters();
+    private int mFrameCount;
+    private long mAllocatedBytes;
+    private long mAllocationCounterOverhead;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        mRecyclerView = new RecyclerView(activity);
+        mLayoutManager = new CountingLayoutManager();
+        mAdapter = new TestAdapter(ITEMS_COUNT);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mRecyclerView.setAdapter(mAdapter);
+        // without view cache every view that leaves layout is recycled and every view that enters it is bound
+        mRecyclerView.setItemViewCacheSize(0);
+        mRecyclerView.addRecyclerListener(new RecyclerView.RecyclerListener() {
+            @Override
+            public void onViewRecycled(@NonNull final RecyclerView.ViewHolder holder) {
+                ++mTotal.mRecycledViewCount;
+            }
+        });
+        activity.setContentView(mRecyclerView, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        layout();
+    }
+
+    @Test
+    public void initialLayoutCentersFirstItem() {
+        assertEquals(0, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(0);
+    }
+
+    @Test
+    public void scrollToPositionCentersItem() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        assertEquals(50, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(50);
+        assertEquals(0, mLayoutManager.getItemDistanceToPosition(50), 1e-6);
+    }
+
+    @Test
+    public void scrollToPositionIsClampedToItems() {
+        mLayoutManager.scrollToPosition(ITEMS_COUNT + 10);
+        layout();
+
+        assertEquals(ITEMS_COUNT - 1, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(ITEMS_COUNT - 1);
+    }
+
+    @Test
+    public void smoothScrollToPositionCentersItem() {
+        mRecyclerView.smoothScrollToPosition(10);
+        idle();
+
+        assertEquals(RecyclerView.SCROLL_STATE_IDLE, mRecyclerView.getScrollState());
+        assertEquals(10, mLayoutManager.getCenterItemPosition());
+        assertEquals(0, mLayoutManager.getItemDistanceToPosition(10), 0.01);
+        assertLayoutAround(10);
+    }
+
+    @Test
+    public void smoothScrollJumpsCloseToFarPosition() {
+        mLayoutManager.setSmoothScrollJumpItemCount(2);
+        startFrames();
+
+        mRecyclerView.smoothScrollToPosition(90);
+        idle();
+
+        assertEquals(90, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(90);
+        // only the last items before target are animated, far items are never bound
+        assertTrue(String.valueOf(mTotal.mBoundViewCount), mTotal.mBoundViewCount <= (MAX_VISIBLE_ITEMS * 2 + 1) + 2 + MAX_VISIBLE_ITEMS);
+    }
+
+    @Test
+    public void circleLayoutWrapsAdapterBounds() {
+        mLayoutManager.setCircleLayout(true);
+        layout();
+
+        assertEquals(0, mLayoutManager.getCenterItemPosition());
+        assertEquals(MAX_VISIBLE_ITEMS * 2 + 1, mRecyclerView.getChildCount());
+        final Set<Integer> positions = getChildPositions();
+        for (int i = 1; i <= MAX_VISIBLE_ITEMS; ++i) {
+            assertTrue(positions.contains(i));
+            assertTrue(positions.contains(ITEMS_COUNT - i));
+        }
+
+        mRecyclerView.scrollBy(-ITEM_SIZE, 0);
+        assertEquals(ITEMS_COUNT - 1, getCenterChildPosition());
+    }
+
+    @Test
+    public void scrollInsideItemOnlyLaysOutChildren() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+        final int createCount = mAdapter.mCreateCount;
+        startFrames();
+
+        // center item is not changed till half of item is scrolled
+        for (int i = 0; i < 9; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 20, 0);
+        }
+
+        assertEquals(9, mFrameCount);
+        assertEquals(0, mTotal.mAddedViewCount);
+        assertEquals(0, mTotal.mBoundViewCount);
+        assertEquals(0, mTotal.mRecycledViewCount);
+        assertEquals(0, mTotal.mMeasuredViewCount);
+        assertEquals(createCount, mAdapter.mCreateCount);
+        // every child is laid out once per frame
+        assertEquals(mRecyclerView.getChildCount(), mMaxFrame.mLaidOutViewCount);
+        assertEquals(9 * mRecyclerView.getChildCount(), mTotal.mLaidOutViewCount);
+    }
+
+    @Test
+    public void steadyScrollDoesNotAllocate() {
+        assumeTrue(getThreadMXBean().isThreadAllocatedMemorySupported());
+        getThreadMXBean().setThreadAllocatedMemoryEnabled(true);
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        // first frames initialize classes, shadows and lazy fields
+        for (int i = 0; i < WARM_UP_FRAMES; ++i) {
+            mRecyclerView.scrollBy(0 == i % 2 ? ITEM_SIZE / 20 : -ITEM_SIZE / 20, 0);
+        }
+        mAllocationCounterOverhead = getAllocationCounterOverhead();
+        startFrames();
+        for (int i = 0; i < MEASURED_FRAMES; ++i) {
+            mRecyclerView.scrollBy(0 == i % 2 ? ITEM_SIZE / 20 : -ITEM_SIZE / 20, 0);
+        }
+
+        assertEquals(MEASURED_FRAMES, mFrameCount);
+        assertEquals(0, mTotal.mBoundViewCount);
+        assertTrue(mAllocatedBytes + " bytes in " + mFrameCount + " frames", mAllocatedBytes <= FRAME_ALLOCATION_BUDGET_BYTES * mFrameCount);
+    }
+
+    @Test
+    public void scrollFrameBindsOnlyEnteringItems() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+        startFrames();
+
+        for (int i = 0; i < 10 * 10; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 10, 0);
+        }
+
+        assertEquals(60, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(60);
+        // every item that enters layout is added, bound and measured once and every item that leaves it is recycled once
+        assertEquals(10, mTotal.mAddedViewCount);
+        assertEquals(10, mTotal.mBoundViewCount);
+        assertEquals(10, mTotal.mRecycledViewCount);
+        assertEquals(10, mTotal.mMeasuredViewCount);
+        assertEquals(1, mMaxFrame.mAddedViewCount);
+        assertEquals(1, mMaxFrame.mBoundViewCount);
+        assertEquals(1, mMaxFrame.mRecycledViewCount);
+        assertEquals(1, mMaxFrame.mMeasuredViewCount);
+        assertEquals(MAX_VISIBLE_ITEMS * 2 + 1, mMaxFrame.mLaidOutViewCount);
+    }
+
+    @Test
+    public void fastScrollFrameBindsOnlyVisibleItems() {
+        startFrames();
+
+        mRecyclerView.scrollBy(ITEM_SIZE * 40, 0);
+
+        assertEquals(1, mFrameCount);
+        assertEquals(40, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(40);
+        assertEquals(MAX_VISIBLE_ITEMS * 2 + 1, mMaxFrame.mBoundViewCount);
+        assertEquals(MAX_VISIBLE_ITEMS * 2 + 1, mMaxFrame.mMeasuredViewCount);
+        assertEquals(MAX_VISIBLE_ITEMS * 2 + 1, mMaxFrame.mLaidOutViewCount);
+        // items before the first center item are out of layout
+        assertEquals(MAX_VISIBLE_ITEMS + 1, mMaxFrame.mRecycledViewCount);
+    }
+
+    @Test
+    public void propertyTransformScrollDoesNotLayoutChildren() {
+        mLayoutManager.setPropertyTransformEnabled(true);
+        mLayoutManager.scrollToPosition(50);
+        layout();
+        startFrames();
+
+        for (int i = 0; i < 9; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 20, 0);
+        }
+
+        assertEquals(9, mFrameCount);
+        assertEquals(0, mTotal.mBoundViewCount);
+        assertEquals(0, mTotal.mMeasuredViewCount);
+        assertEquals(0, mTotal.mLaidOutViewCount);
+    }
+
+    @Test
+    public void postLayoutListenerChangeKeepsAlphaItDidNotWrite() {
+        mLayoutManager.setPostLayoutListener(new CarouselZoomPostLayoutListener());
+        layout();
+        for (int i = 0; i < mRecyclerView.getChildCount(); ++i) {
+            mRecyclerView.getChildAt(i).setAlpha(0.5f);
+        }
+
+        mLayoutManager.setPostLayoutListener(null);
+
+        for (int i = 0; i < mRecyclerView.getChildCount(); ++i) {
+            assertEquals(0.5f, mRecyclerView.getChildAt(i).getAlpha(), 1e-6);
+        }
+    }
+
+    @Test
+    public void layoutMetricsMatchFrameCounters() {
+        final int[] metricsCounts = new int[3];
+        mLayoutManager.setOnLayoutMetricsListener(new CarouselLayoutManager.OnLayoutMetricsListener() {
+            @Override
+            public void onLayoutMetrics(@NonNull final LayoutMetrics metrics) {
+                ++metricsCounts[0];
+                metricsCounts[1] += metrics.getBoundViewCount();
+                metricsCounts[2] += metrics.getRecycledViewCount();
+            }
+        });
+        mLayoutManager.scrollToPosition(50);
+        layout();
+        metricsCounts[0] = 0;
+        metricsCounts[1] = 0;
+        metricsCounts[2] = 0;
+        startFrames();
+
+        for (int i = 0; i < 10 * 10; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 10, 0);
+        }
+
+        assertEquals(mFrameCount, metricsCounts[0]);
+        assertEquals(mTotal.mAddedViewCount, metricsCounts[1]);
+        assertEquals(mTotal.mRecycledViewCount, metricsCounts[2]);
+    }
+
+    @Test
+    public void itemDecorationChangeUpdatesItemSize() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        mRecyclerView.addItemDecoration(new RecyclerView.ItemDecoration() {
+            @Override
+            public void getItemOffsets(@NonNull final Rect outRect, @NonNull final View view, @NonNull final RecyclerView parent,
+                                       @NonNull final RecyclerView.State state) {
+                outRect.set(10, 0, 10, 0);
+            }
+        });
+        layout();
+
+        assertEquals(50, mLayoutManager.getCenterItemPosition());
+        final View centerChild = mRecyclerView.getChildAt(mRecyclerView.getChildCount() - 1);
+        assertEquals(ITEM_SIZE + 20, mLayoutManager.getDecoratedMeasuredWidth(centerChild));
+
+        // less then half of decorated item, but more then half of item without decoration
+        mRecyclerView.scrollBy(ITEM_SIZE / 2 + 5, 0);
+        assertEquals(50, mLayoutManager.getCenterItemPosition());
+    }
+
+    @Test
+    public void plannedScrollMatchesSynchronousLayout() {
+        final int[] transformCount = new int[1];
+        final CarouselGeometry arcGeometry = new ArcGeometry();
+        mLayoutManager.setGeometry(new CarouselGeometry() {
+            @Override
+            public void transformItems(@NonNull final ItemTransformationBatch batch) {
+                ++transformCount[0];
+                arcGeometry.transformItems(batch);
+            }
+
+            @Override
+            public boolean isPure() {
+                return true;
+            }
+        });
+        // executor runs plan at once, so every frame with extrapolated scroll step has a ready plan
+        mLayoutManager.setLayoutPlanExecutor(new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                command.run();
+            }
+        });
+        layout();
+
+        transformCount[0] = 0;
+        final int frames = 20;
+        for (int i = 0; i < frames; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 8, 0);
+        }
+        // one planned transformation per frame, only the first frames are calculated synchronously
+        assertTrue(transformCount[0] <= frames + 2);
+        final float[] plannedRotations = getChildRotationsByPosition();
+
+        mLayoutManager.setLayoutPlanExecutor(null);
+        mRecyclerView.scrollBy(1, 0);
+        mRecyclerView.scrollBy(-1, 0);
+
+        assertArrayEquals(plannedRotations, getChildRotationsByPosition(), 0);
+    }
+
+    @Test
+    public void insertBeforeCenterKeepsCenterItem() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        mAdapter.mItems.add(10, -1);
+        mAdapter.notifyItemInserted(10);
+        layout();
+        idle();
+
+        assertEquals(51, mLayoutManager.getCenterItemPosition());
+        assertEquals("50", getCenterChildText());
+        assertLayoutAround(51);
+    }
+
+    @Test
+    public void insertBeforeCenterKeepsMeasuredItemSizes() {
+        mAdapter.mWideItem = 48;
+        mLayoutManager.setVariableItemSizeEnabled(true);
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        // wide item before center one is measured and moves scroll offset
+        assertEquals(51 * ITEM_SIZE, mRecyclerView.computeHorizontalScrollOffset());
+        assertLayoutAround(50);
+
+        mAdapter.mItems.add(10, -1);
+        mAdapter.notifyItemInserted(10);
+        layout();
+        idle();
+
+        // attached children are not measured again, so size of wide item is kept by size index
+        assertEquals(52 * ITEM_SIZE, mRecyclerView.computeHorizontalScrollOffset());
+        assertEquals("50", getCenterChildText());
+        assertLayoutAround(51);
+    }
+
+    @Test
+    public void removeBeforeCenterKeepsCenterItem() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        mAdapter.mItems.remove(10);
+        mAdapter.notifyItemRemoved(10);
+        layout();
+        idle();
+
+        assertEquals(49, mLayoutManager.getCenterItemPosition());
+        assertEquals("50", getCenterChildText());
+        assertLayoutAround(49);
+    }
+
+    @Test
+    public void removeCenterItemKeepsCenterPosition() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        mAdapter.mItems.remove(50);
+        mAdapter.notifyItemRemoved(50);
+        layout();
+        idle();
+
+        assertEquals(50, mLayoutManager.getCenterItemPosition());
+        assertEquals("51", getCenterChildText());
+        assertLayoutAround(50);
+    }
+
+    @Test
+    public void pendingScrollIsAppliedAfterAdapterChanges() {
+        mLayoutManager.scrollToPosition(ITEMS_COUNT - 1);
+        mAdapter.mItems.remove(0);
+        mAdapter.notifyItemRemoved(0);
+        layout();
+        idle();
+
+        assertEquals(ITEMS_COUNT - 2, mLayoutManager.getCenterItemPosition());
+        assertEquals(String.valueOf(ITEMS_COUNT - 1), getCenterChildText());
+        assertLayoutAround(ITEMS_COUNT - 2);
+    }
+
+    @Test
+    public void dataSetChangeToFewerItems() {
+        mLayoutManager.scrollToPosition(50);
+        layout();
+
+        mAdapter.mItems.subList(3, mAdapter.mItems.size()).clear();
+        mAdapter.notifyDataSetChanged();
+        layout();
+        idle();
+
+        assertEquals(2, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(2);
+    }
+
+    @Test
+    public void emptyAdapterRemovesChildren() {
+        mAdapter.mItems.clear();
+        mAdapter.notifyDataSetChanged();
+        layout();
+        idle();
+
+        assertEquals(0, mRecyclerView.getChildCount());
+
+        mAdapter.mItems.add(0);
+        mAdapter.mItems.add(1);
+        mAdapter.notifyDataSetChanged();
+        layout();
+
+        assertLayoutAround(0);
+    }
+
+    @Test
+    public void layoutModeChangeRequestsLayout() {
+        assertFalse(mRecyclerView.isLayoutRequested());
+
+        mLayoutManager.setIncrementalLayoutEnabled(false);
+        assertTrue(mRecyclerView.isLayoutRequested());
+        layout();
+
+        assertLayoutAround(0);
+    }
+
+    @Test
+    public void notIncrementalLayoutBindsTheSameItems() {
+        mLayoutManager.setIncrementalLayoutEnabled(false);
+        mLayoutManager.scrollToPosition(50);
+        layout();
+        startFrames();
+
+        for (int i = 0; i < 10; ++i) {
+            mRecyclerView.scrollBy(ITEM_SIZE / 10, 0);
+        }
+
+        assertEquals(51, mLayoutManager.getCenterItemPosition());
+        assertLayoutAround(51);
+        // scrapped views of the same positions are not bound again
+        assertEquals(1, mTotal.mBoundViewCount);
+    }
+
+    private void layout() {
+        mRecyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+        );
+        mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private void idle() {
+        // runs smooth scroll, item animations and center item callbacks
+        shadowOf(Looper.getMainLooper()).idleFor(10, TimeUnit.SECONDS);
+        layout();
+    }
+
+    private void startFrames() {
+        mTotal.clear();
+        mMaxFrame.clear();
+        mFrameCount = 0;
+        mAllocatedBytes = 0;
+    }
+
+    /**
+     * Checks that children are exactly the items around center one and center item is drawn last.
+     */
+    private void assertLayoutAround(final int centerItem) {
+        final int itemsCount = mAdapter.getItemCount();
+        final int firstItem = Math.max(0, centerItem - MAX_VISIBLE_ITEMS);
+        final int lastItem = Math.min(itemsCount - 1, centerItem + MAX_VISIBLE_ITEMS);
+
+        assertEquals(lastItem - firstItem + 1, mRecyclerView.getChildCount());
+        final Set<Integer> positions = getChildPositions();
+        for (int i = firstItem; i <= lastItem; ++i) {
+            assertTrue("no child for " + i, positions.contains(i));
+        }
+        assertEquals(centerItem, getCenterChildPosition());
+
+        final View centerChild = mRecyclerView.getChildAt(mRecyclerView.getChildCount() - 1);
+        assertEquals(WIDTH / 2, (centerChild.getLeft() + centerChild.getRight()) / 2);
+        assertEquals(ITEM_SIZE, centerChild.getWidth());
+    }
+
+    @NonNull
+    private Set<Integer> getChildPositions() {
+        final Set<Integer> positions = new HashSet<>();
+        for (int i = 0; i < mRecyclerView.getChildCount(); ++i) {
+            assertTrue("child is shown twice", positions.add(mRecyclerView.getChildLayoutPosition(mRecyclerView.getChildAt(i))));
+        }
+        return positions;
+    }
+
+    private int getCenterChildPosition() {
+        return mRecyclerView.getChildLayoutPosition(mRecyclerView.getChildAt(mRecyclerView.getChildCount() - 1));
+    }
+
+    @NonNull
+    private float[] getChildRotationsByPosition() {
+        final float[] rotations = new float[mAdapter.getItemCount()];
+        for (int i = 0; i < mRecyclerView.getChildCount(); ++i) {
+            final View child = mRecyclerView.getChildAt(i);
+            rotations[mRecyclerView.getChildLayoutPosition(child)] = child.getRotation();
+        }
+        return rotations;
+    }
+
+    @NonNull
+    private String getCenterChildText() {
+        return ((TextView) mRecyclerView.getChildAt(mRecyclerView.getChildCount() - 1)).getText().toString();
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    private static long getAllocatedBytes() {
+        return getThreadMXBean().getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return bytes that are allocated by {@link #getAllocatedBytes()} call itself
+     */
+    private static long getAllocationCounterOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; ++i) {
+            final long allocatedBytes = getAllocatedBytes();
+            overhead = Math.min(overhead, getAllocatedBytes() - allocatedBytes);
+        }
+        return overhead;
+    }
+
+    /**
+     * Counts views added to layout and measured by layout manager, and treats every scrollHorizontallyBy call as a frame.
+     */
+    private final class CountingLayoutManager extends CarouselLayoutManager {
+
+        CountingLayoutManager() {
+            super(HORIZONTAL);
+        }
+
+        @Override
+        public void addView(final View child, final int index) {
+            ++mTotal.mAddedViewCount;
+            super.addView(child, index);
+        }
+
+        @Override
+        public void measureChildWithMargins(@NonNull final View child, final int widthUsed, final int heightUsed) {
+            ++mTotal.mMeasuredViewCount;
+            super.measureChildWithMargins(child, widthUsed, heightUsed);
+        }
+
+        @Override
+        public int scrollHorizontallyBy(final int dx, final RecyclerView.Recycler recycler, final RecyclerView.State state) {
+            mFrameStart.set(mTotal);
+            final long allocatedBytes = getAllocatedBytes();
+
+            final int result = super.scrollHorizontallyBy(dx, recycler, state);
+
+            mAllocatedBytes += Math.max(0, getAllocatedBytes() - allocatedBytes - mAllocationCounterOverhead);
+            ++mFrameCount;
+            mMaxFrame.setMaxFrame(mTotal, mFrameStart);
+            return result;
+        }
+    }
+
+    private static final class FrameCounters {
+
+        private int mAddedViewCount;
+        private int mBoundViewCount;
+        private int mRecycledViewCount;
+        private int mMeasuredViewCount;
+        private int mLaidOutViewCount;
+
+        void set(@NonNull final FrameCounters counters) {
+            mAddedViewCount = counters.mAddedViewCount;
+            mBoundViewCount = counters.mBoundViewCount;
+            mRecycledViewCount = counters.mRecycledViewCount;
+            mMeasuredViewCount = counters.mMeasuredViewCount;
+            mLaidOutViewCount = counters.mLaidOutViewCount;
+        }
+
+        /**
+         * Keeps maximum of every counter between this value and the work done from frameStart till total.
+         */
+        void setMaxFrame(@NonNull final FrameCounters total, @NonNull final FrameCounters frameStart) {
+            mAddedViewCount = Math.max(mAddedViewCount, total.mAddedViewCount - frameStart.mAddedViewCount);
+            mBoundViewCount = Math.max(mBoundViewCount, total.mBoundViewCount - frameStart.mBoundViewCount);
+            mRecycledViewCount = Math.max(mRecycledViewCount, total.mRecycledViewCount - frameStart.mRecycledViewCount);
+            mMeasuredViewCount = Math.max(mMeasuredViewCount, total.mMeasuredViewCount - frameStart.mMeasuredViewCount);
+            mLaidOutViewCount = Math.max(mLaidOutViewCount, total.mLaidOutViewCount - frameStart.mLaidOutViewCount);
+        }
+
+        void clear() {
+            mAddedViewCount = 0;
+            mBoundViewCount = 0;
+            mRecycledViewCount = 0;
+            mMeasuredViewCount = 0;
+            mLaidOutViewCount = 0;
+        }
+    }
+
+    private final class TestAdapter extends RecyclerView.Adapter<TestViewHolder> {
+
+        private final List<Integer> mItems = new ArrayList<>();
+        private int mCreateCount;
+        private int mWideItem = -1;
+
+        TestAdapter(final int itemsCount) {
+            for (int i = 0; i < itemsCount; ++i) {
+                mItems.add(i);
+            }
+        }
+
+        @NonNull
+        @Override
+        public TestViewHolder onCreateViewHolder(@NonNull final ViewGroup parent, final int viewType) {
+            ++mCreateCount;
+            final TextView view = new CountingView(parent.getContext());
+            view.setLayoutParams(new ViewGroup.LayoutParams(ITEM_SIZE, ITEM_SIZE));
+            return new TestViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull final TestViewHolder holder, final int position) {
+            ++mTotal.mBoundViewCount;
+            final int item = mItems.get(position);
+            holder.mTextView.setText(String.valueOf(item));
+            holder.mTextView.getLayoutParams().width = mWideItem == item ? 2 * ITEM_SIZE : ITEM_SIZE;
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItems.size();
+        }
+    }
+
+    /**
+     * Item view that counts layout calls. Layout manager positions children with {@link View#layout(int, int, int, int)} directly.
+     */
+    private final class CountingView extends TextView {
+
+        CountingView(@NonNull final Context context) {
+            super(context);
+        }
+
+        @Override
+        public void layout(final int l, final int t, final int r, final int b) {
+            ++mTotal.mLaidOutViewCount;
+            super.layout(l, t, r, b);
+        }
+    }
+
+    private static final class TestViewHolder extends RecyclerView.ViewHolder {
+
+        private final TextView mTextView;
+
+        TestViewHolder(@NonNull final TextView itemView) {
+            super(itemView);
+            mTextView = itemView;
+        }
+    }
+}
\ No newline at end of file
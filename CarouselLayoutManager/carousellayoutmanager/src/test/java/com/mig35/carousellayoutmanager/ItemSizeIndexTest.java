@@ -0,0 +1,212 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemSizeIndexTest {
+
+    private static final int DEFAULT_SIZE = 100;
+
+    private ItemSizeIndex mItemSizeIndex;
+
+    @Before
+    public void setUp() {
+        mItemSizeIndex = new ItemSizeIndex();
+        mItemSizeIndex.reset(10, DEFAULT_SIZE);
+    }
+
+    @Test
+    public void resetUsesDefaultSize() {
+        assertEquals(10, mItemSizeIndex.getCount());
+        assertEquals(DEFAULT_SIZE, mItemSizeIndex.getDefaultSize());
+        assertEquals(10 * DEFAULT_SIZE, mItemSizeIndex.getTotalSize());
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(DEFAULT_SIZE, mItemSizeIndex.getSize(i));
+            assertEquals(i * DEFAULT_SIZE, mItemSizeIndex.getOffset(i));
+            assertFalse(mItemSizeIndex.isMeasured(i));
+        }
+    }
+
+    @Test
+    public void setSizeUpdatesOffsets() {
+        assertEquals(50, mItemSizeIndex.setSize(3, 150));
+        assertEquals(-50, mItemSizeIndex.setSize(7, 50));
+        assertEquals(0, mItemSizeIndex.setSize(8, DEFAULT_SIZE));
+
+        assertTrue(mItemSizeIndex.isMeasured(3));
+        assertTrue(mItemSizeIndex.isMeasured(8));
+        assertFalse(mItemSizeIndex.isMeasured(4));
+        assertEquals(150, mItemSizeIndex.getSize(3));
+        assertEquals(300, mItemSizeIndex.getOffset(3));
+        assertEquals(450, mItemSizeIndex.getOffset(4));
+        assertEquals(750, mItemSizeIndex.getOffset(7));
+        assertEquals(800, mItemSizeIndex.getOffset(8));
+        assertEquals(10 * DEFAULT_SIZE, mItemSizeIndex.getTotalSize());
+    }
+
+    @Test
+    public void findPositionReturnsItemThatContainsOffset() {
+        mItemSizeIndex.setSize(0, 10);
+        mItemSizeIndex.setSize(1, 30);
+
+        assertEquals(0, mItemSizeIndex.findPosition(0));
+        assertEquals(0, mItemSizeIndex.findPosition(9));
+        assertEquals(1, mItemSizeIndex.findPosition(10));
+        assertEquals(1, mItemSizeIndex.findPosition(39));
+        assertEquals(2, mItemSizeIndex.findPosition(40));
+        assertEquals(9, mItemSizeIndex.findPosition(mItemSizeIndex.getTotalSize() - 1));
+    }
+
+    @Test
+    public void findPositionIsClampedToItems() {
+        assertEquals(0, mItemSizeIndex.findPosition(-1000));
+        assertEquals(9, mItemSizeIndex.findPosition(mItemSizeIndex.getTotalSize()));
+        assertEquals(9, mItemSizeIndex.findPosition(Long.MAX_VALUE));
+
+        mItemSizeIndex.reset(0, DEFAULT_SIZE);
+        assertEquals(0, mItemSizeIndex.getTotalSize());
+        assertEquals(0, mItemSizeIndex.findPosition(0));
+    }
+
+    @Test
+    public void resetForgetsMeasuredSizes() {
+        mItemSizeIndex.setSize(2, 500);
+
+        mItemSizeIndex.reset(5, 20);
+        assertEquals(5, mItemSizeIndex.getCount());
+        assertEquals(100, mItemSizeIndex.getTotalSize());
+        assertEquals(20, mItemSizeIndex.getSize(2));
+        assertFalse(mItemSizeIndex.isMeasured(2));
+
+        mItemSizeIndex.reset(20, 20);
+        assertEquals(400, mItemSizeIndex.getTotalSize());
+    }
+
+    @Test
+    public void addedItemsShiftMeasuredSizes() {
+        mItemSizeIndex.setSize(2, 10);
+        mItemSizeIndex.setSize(5, 20);
+
+        mItemSizeIndex.onItemsAdded(3, 2);
+
+        assertEquals(12, mItemSizeIndex.getCount());
+        assertEquals(10, mItemSizeIndex.getSize(2));
+        assertFalse(mItemSizeIndex.isMeasured(3));
+        assertFalse(mItemSizeIndex.isMeasured(4));
+        assertEquals(DEFAULT_SIZE, mItemSizeIndex.getSize(4));
+        assertEquals(20, mItemSizeIndex.getSize(7));
+        assertTrue(mItemSizeIndex.isMeasured(7));
+        assertEquals(6 * DEFAULT_SIZE + 10, mItemSizeIndex.getOffset(7));
+        assertEquals(10 * DEFAULT_SIZE + 10 + 20, mItemSizeIndex.getTotalSize());
+    }
+
+    @Test
+    public void removedItemsShiftMeasuredSizes() {
+        mItemSizeIndex.setSize(2, 10);
+        mItemSizeIndex.setSize(5, 20);
+
+        mItemSizeIndex.onItemsRemoved(1, 2);
+
+        assertEquals(8, mItemSizeIndex.getCount());
+        assertEquals(20, mItemSizeIndex.getSize(3));
+        assertTrue(mItemSizeIndex.isMeasured(3));
+        assertEquals(3 * DEFAULT_SIZE, mItemSizeIndex.getOffset(3));
+        assertEquals(7 * DEFAULT_SIZE + 20, mItemSizeIndex.getTotalSize());
+
+        // removal past the last item is clamped
+        mItemSizeIndex.onItemsRemoved(6, 10);
+        assertEquals(6, mItemSizeIndex.getCount());
+    }
+
+    @Test
+    public void movedItemsKeepMeasuredSizes() {
+        mItemSizeIndex.setSize(2, 10);
+
+        mItemSizeIndex.onItemsMoved(2, 6, 1);
+        assertEquals(10, mItemSizeIndex.getSize(6));
+        assertEquals(DEFAULT_SIZE, mItemSizeIndex.getSize(2));
+        assertEquals(6 * DEFAULT_SIZE, mItemSizeIndex.getOffset(6));
+
+        mItemSizeIndex.onItemsMoved(6, 0, 1);
+        assertEquals(10, mItemSizeIndex.getSize(0));
+        assertTrue(mItemSizeIndex.isMeasured(0));
+        assertEquals(10, mItemSizeIndex.getOffset(1));
+        assertEquals(9 * DEFAULT_SIZE + 10, mItemSizeIndex.getTotalSize());
+    }
+
+    @Test
+    public void adapterChangesMatchList() {
+        final List<Integer> sizes = new ArrayList<>();
+        final Random random = new Random(42);
+        mItemSizeIndex.reset(0, DEFAULT_SIZE);
+        for (int i = 0; i < 2000; ++i) {
+            final int operation = random.nextInt(4);
+            if (0 == operation || sizes.isEmpty()) {
+                final int position = random.nextInt(sizes.size() + 1);
+                final int count = 1 + random.nextInt(5);
+                mItemSizeIndex.onItemsAdded(position, count);
+                for (int j = 0; j < count; ++j) {
+                    sizes.add(position, DEFAULT_SIZE);
+                }
+            } else if (1 == operation) {
+                final int position = random.nextInt(sizes.size());
+                final int count = Math.min(1 + random.nextInt(3), sizes.size() - position);
+                mItemSizeIndex.onItemsRemoved(position, count);
+                sizes.subList(position, position + count).clear();
+            } else if (2 == operation) {
+                final int from = random.nextInt(sizes.size());
+                final int to = random.nextInt(sizes.size());
+                mItemSizeIndex.onItemsMoved(from, to, 1);
+                sizes.add(to, sizes.remove(from));
+            } else {
+                final int position = random.nextInt(sizes.size());
+                final int size = 1 + random.nextInt(300);
+                mItemSizeIndex.setSize(position, size);
+                sizes.set(position, size);
+            }
+        }
+
+        assertEquals(sizes.size(), mItemSizeIndex.getCount());
+        long offset = 0;
+        for (int i = 0; i < sizes.size(); ++i) {
+            assertEquals((int) sizes.get(i), mItemSizeIndex.getSize(i));
+            assertEquals(offset, mItemSizeIndex.getOffset(i));
+            offset += sizes.get(i);
+        }
+        assertEquals(offset, mItemSizeIndex.getTotalSize());
+    }
+
+    @Test
+    public void matchesPrefixSums() {
+        final int count = 1000;
+        final int[] sizes = new int[count];
+        final Random random = new Random(42);
+        mItemSizeIndex.reset(count, DEFAULT_SIZE);
+        for (int i = 0; i < count; ++i) {
+            sizes[i] = DEFAULT_SIZE;
+        }
+        for (int i = 0; i < 5000; ++i) {
+            final int position = random.nextInt(count);
+            final int size = 1 + random.nextInt(300);
+            assertEquals(size - sizes[position], mItemSizeIndex.setSize(position, size));
+            sizes[position] = size;
+        }
+
+        long offset = 0;
+        for (int i = 0; i < count; ++i) {
+            assertEquals(offset, mItemSizeIndex.getOffset(i));
+            assertEquals(i, mItemSizeIndex.findPosition(offset));
+            assertEquals(i, mItemSizeIndex.findPosition(offset + sizes[i] - 1));
+            offset += sizes[i];
+        }
+        assertEquals(offset, mItemSizeIndex.getTotalSize());
+    }
+}
\ No newline at end of file
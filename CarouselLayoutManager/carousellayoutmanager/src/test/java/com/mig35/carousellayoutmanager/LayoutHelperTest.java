@@ -0,0 +1,123 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutHelperTest {
+
+    private static final float DELTA = 1e-5f;
+
+    private LayoutHelper mLayoutHelper;
+
+    @Before
+    public void setUp() {
+        mLayoutHelper = new LayoutHelper(2);
+    }
+
+    @Test
+    public void positionDiffsFollowScrollPosition() {
+        mLayoutHelper.generateLayoutOrder(5.25, 10, false, 0);
+
+        assertLayoutOrder(new int[]{3, 4, 7, 6, 5}, new float[]{-2.25f, -1.25f, 1.75f, 0.75f, -0.25f});
+    }
+
+    @Test
+    public void circleLayoutUsesScrollPositionInRange() {
+        mLayoutHelper.generateLayoutOrder(-10.75, 10, true, 0);
+
+        assertLayoutOrder(new int[]{7, 8, 1, 0, 9}, new float[]{-2.25f, -1.25f, 1.75f, 0.75f, -0.25f});
+    }
+
+    @Test
+    public void extraVisibleItemsAreAdded() {
+        mLayoutHelper.generateLayoutOrder(5, 10, false, 1);
+
+        assertEquals(7, mLayoutHelper.mLayoutCount);
+        assertTrue(mLayoutHelper.hasAdapterPosition(2));
+        assertTrue(mLayoutHelper.hasAdapterPosition(8));
+        assertFalse(mLayoutHelper.hasAdapterPosition(1));
+        assertFalse(mLayoutHelper.hasAdapterPosition(9));
+    }
+
+    @Test
+    public void layoutOrderIsTheSameAfterCenterItemChanges() {
+        final LayoutHelper freshLayoutHelper = new LayoutHelper(2);
+        // the same center item reuses layout plan, new center item rebuilds it
+        for (double scrollPosition = 0; scrollPosition < 30; scrollPosition += 0.375) {
+            mLayoutHelper.generateLayoutOrder(scrollPosition, 20, true, 0);
+            freshLayoutHelper.generateLayoutOrder(-scrollPosition, 20, true, 0);
+            freshLayoutHelper.generateLayoutOrder(scrollPosition, 20, true, 0);
+
+            assertEquals(freshLayoutHelper.mLayoutCount, mLayoutHelper.mLayoutCount);
+            for (int i = 0; i < mLayoutHelper.mLayoutCount; ++i) {
+                assertEquals(freshLayoutHelper.mItemAdapterPositions[i], mLayoutHelper.mItemAdapterPositions[i]);
+                assertEquals(freshLayoutHelper.mItemPositionDiffs[i], mLayoutHelper.mItemPositionDiffs[i], DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void maxVisibleItemsChangeIsApplied() {
+        mLayoutHelper.generateLayoutOrder(50, 100, false, 0);
+        assertEquals(5, mLayoutHelper.mLayoutCount);
+
+        mLayoutHelper.mMaxVisibleItems = 4;
+        mLayoutHelper.generateLayoutOrder(50, 100, false, 0);
+        assertEquals(9, mLayoutHelper.mLayoutCount);
+        assertTrue(mLayoutHelper.hasAdapterPosition(46));
+        assertTrue(mLayoutHelper.hasAdapterPosition(54));
+    }
+
+    @Test
+    public void emptyAdapterHasNoItems() {
+        mLayoutHelper.generateLayoutOrder(0, 0, false, 0);
+        assertEquals(0, mLayoutHelper.mLayoutCount);
+
+        mLayoutHelper.generateLayoutOrder(0, 0, true, 0);
+        assertEquals(0, mLayoutHelper.mLayoutCount);
+    }
+
+    @Test
+    public void removeLayoutOrderKeepsOrder() {
+        mLayoutHelper.generateLayoutOrder(5, 10, false, 0);
+
+        mLayoutHelper.removeLayoutOrder(new boolean[]{true, false, true, false, false});
+
+        assertLayoutOrder(new int[]{4, 6, 5}, new float[]{-1, 1, 0});
+        assertFalse(mLayoutHelper.hasAdapterPosition(3));
+        assertFalse(mLayoutHelper.hasAdapterPosition(7));
+    }
+
+    @Test
+    public void makeScrollPositionInRange0ToCount() {
+        assertEquals(2.5, LayoutHelper.makeScrollPositionInRange0ToCount(2.5, 10), DELTA);
+        assertEquals(2.5, LayoutHelper.makeScrollPositionInRange0ToCount(12.5, 10), DELTA);
+        assertEquals(8.75, LayoutHelper.makeScrollPositionInRange0ToCount(-1.25, 10), DELTA);
+        assertEquals(3, LayoutHelper.makeScrollPositionInRange0ToCount(1e9 + 3, 10), DELTA);
+        assertEquals(7, LayoutHelper.makeScrollPositionInRange0ToCount(-1e9 - 3, 10), DELTA);
+        // item with scroll position close to count is the first item
+        assertEquals(-0.25, LayoutHelper.makeScrollPositionInRange0ToCount(9.75, 10), DELTA);
+        assertEquals(-5.5, LayoutHelper.makeScrollPositionInRange0ToCount(-5.5, 0), DELTA);
+    }
+
+    @Test
+    public void getCardOffset() {
+        assertEquals(0, LayoutHelper.getCardOffset(0, 0, 100));
+        assertEquals(25, LayoutHelper.getCardOffset(0.5f, 0.25, 100));
+        assertEquals(-25, LayoutHelper.getCardOffset(-0.5f, 0.25, 100));
+        assertEquals(100, LayoutHelper.getCardOffset(3, 0.999, 100));
+    }
+
+    private void assertLayoutOrder(final int[] expectedPositions, final float[] expectedDiffs) {
+        assertEquals(expectedPositions.length, mLayoutHelper.mLayoutCount);
+        for (int i = 0; i < expectedPositions.length; ++i) {
+            assertEquals("position " + i, expectedPositions[i], mLayoutHelper.mItemAdapterPositions[i]);
+            assertEquals("diff " + i, expectedDiffs[i], mLayoutHelper.mItemPositionDiffs[i], DELTA);
+            assertTrue(mLayoutHelper.hasAdapterPosition(expectedPositions[i]));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutPlanTest {
+
+    private LayoutPlan mLayoutPlan;
+
+    @Before
+    public void setUp() {
+        mLayoutPlan = new LayoutPlan();
+    }
+
+    @Test
+    public void centerItemIsLast() {
+        mLayoutPlan.build(5, 10, false, 2);
+
+        assertLayoutOrder(new int[]{3, 4, 7, 6, 5}, new int[]{-2, -1, 2, 1, 0});
+    }
+
+    @Test
+    public void notCircleLayoutIsCutByAdapterBounds() {
+        mLayoutPlan.build(0, 10, false, 2);
+        assertLayoutOrder(new int[]{2, 1, 0}, new int[]{2, 1, 0});
+
+        mLayoutPlan.build(9, 10, false, 2);
+        assertLayoutOrder(new int[]{7, 8, 9}, new int[]{-2, -1, 0});
+    }
+
+    @Test
+    public void circleLayoutWrapsAdapterBounds() {
+        mLayoutPlan.build(0, 10, true, 2);
+
+        assertLayoutOrder(new int[]{8, 9, 2, 1, 0}, new int[]{-2, -1, 2, 1, 0});
+    }
+
+    @Test
+    public void circleLayoutDoesNotRepeatItems() {
+        mLayoutPlan.build(1, 3, true, 2);
+
+        assertEquals(3, mLayoutPlan.mLayoutCount);
+        final boolean[] found = new boolean[3];
+        for (int i = 0; i < mLayoutPlan.mLayoutCount; ++i) {
+            found[mLayoutPlan.mItemAdapterPositions[i]] = true;
+        }
+        assertArrayEquals(new boolean[]{true, true, true}, found);
+        assertEquals(1, mLayoutPlan.mItemAdapterPositions[2]);
+    }
+
+    @Test
+    public void singleItemCircleLayout() {
+        mLayoutPlan.build(0, 1, true, 2);
+
+        assertLayoutOrder(new int[]{0}, new int[]{0});
+    }
+
+    @Test
+    public void matchesBuildArguments() {
+        assertFalse(mLayoutPlan.matches(0, 0, false, 0));
+
+        mLayoutPlan.build(5, 10, true, 3);
+        assertTrue(mLayoutPlan.matches(5, 10, true, 3));
+        assertFalse(mLayoutPlan.matches(6, 10, true, 3));
+        assertFalse(mLayoutPlan.matches(5, 11, true, 3));
+        assertFalse(mLayoutPlan.matches(5, 10, false, 3));
+        assertFalse(mLayoutPlan.matches(5, 10, true, 4));
+    }
+
+    private void assertLayoutOrder(final int[] expectedPositions, final int[] expectedDistances) {
+        assertEquals(expectedPositions.length, mLayoutPlan.mLayoutCount);
+        for (int i = 0; i < expectedPositions.length; ++i) {
+            assertEquals("position " + i, expectedPositions[i], mLayoutPlan.mItemAdapterPositions[i]);
+            assertEquals("distance " + i, expectedDistances[i], mLayoutPlan.mItemCenterDistances[i]);
+        }
+    }
+}
\ No newline at end of file
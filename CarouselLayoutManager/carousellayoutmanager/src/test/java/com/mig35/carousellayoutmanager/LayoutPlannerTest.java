@@ -0,0 +1,198 @@
+package com.mig35.carousellayoutmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutPlannerTest {
+
+    private static final int ITEM_SIZE = 200;
+    private static final float DELTA = 0.0001f;
+
+    private final List<Runnable> mTasks = new ArrayList<>();
+    private final CarouselGeometry mGeometry = new ArcGeometry();
+    private LayoutPlanner mLayoutPlanner;
+
+    @Before
+    public void setUp() {
+        mLayoutPlanner = new LayoutPlanner(new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                mTasks.add(command);
+            }
+        });
+    }
+
+    @Test
+    public void planMatchesSynchronousLayout() {
+        final FramePlan request = createRequest(5 * ITEM_SIZE + 50, mGeometry);
+        mLayoutPlanner.schedule(request);
+        runTasks();
+
+        mLayoutPlanner.finish();
+        final FramePlan plan = mLayoutPlanner.getPlan(request);
+        assertNotNull(plan);
+
+        final LayoutHelper layoutHelper = new LayoutHelper(3);
+        layoutHelper.generateLayoutOrder(1.0 * (5 * ITEM_SIZE + 50) / ITEM_SIZE, 20, false, 0);
+        final ItemTransformationBatch batch = new ItemTransformationBatch();
+        batch.init(layoutHelper.mLayoutCount, CarouselLayoutManager.HORIZONTAL, 3, ITEM_SIZE, ITEM_SIZE, 300);
+        System.arraycopy(layoutHelper.mItemAdapterPositions, 0, batch.mItemAdapterPositions, 0, layoutHelper.mLayoutCount);
+        System.arraycopy(layoutHelper.mItemPositionDiffs, 0, batch.mItemPositionDiffs, 0, layoutHelper.mLayoutCount);
+        mGeometry.transformItems(batch);
+
+        assertEquals(layoutHelper.mLayoutCount, plan.mLayoutHelper.mLayoutCount);
+        assertEquals(layoutHelper.mLayoutCount, plan.mBatch.getCount());
+        for (int i = 0; i < layoutHelper.mLayoutCount; ++i) {
+            assertEquals(layoutHelper.mItemAdapterPositions[i], plan.mLayoutHelper.mItemAdapterPositions[i]);
+            assertEquals(layoutHelper.mItemPositionDiffs[i], plan.mLayoutHelper.mItemPositionDiffs[i], 0);
+            assertEquals(batch.mTranslationX[i], plan.mBatch.mTranslationX[i], 0);
+            assertEquals(batch.mTranslationY[i], plan.mBatch.mTranslationY[i], 0);
+            assertEquals(batch.mRotation[i], plan.mBatch.mRotation[i], 0);
+        }
+    }
+
+    @Test
+    public void planIsUsedOnlyForTheSameInputs() {
+        mLayoutPlanner.schedule(createRequest(1000, mGeometry));
+        runTasks();
+        mLayoutPlanner.finish();
+
+        assertNotNull(mLayoutPlanner.getPlan(createRequest(1000, mGeometry)));
+        assertNull(mLayoutPlanner.getPlan(createRequest(1001, mGeometry)));
+        assertNull(mLayoutPlanner.getPlan(createRequest(1000, new ArcGeometry())));
+        assertNull(mLayoutPlanner.getPlan(createRequest(1000, null)));
+    }
+
+    @Test
+    public void notStartedPlanIsCancelled() {
+        final FramePlan request = createRequest(1000, mGeometry);
+        mLayoutPlanner.schedule(request);
+        mLayoutPlanner.finish();
+        runTasks();
+
+        assertNull(mLayoutPlanner.getPlan(request));
+    }
+
+    @Test
+    public void queuedTaskBuildsTheLastRequest() {
+        mLayoutPlanner.schedule(createRequest(1000, mGeometry));
+        mLayoutPlanner.schedule(createRequest(1100, mGeometry));
+        assertEquals(1, mTasks.size());
+        runTasks();
+        mLayoutPlanner.finish();
+
+        assertNull(mLayoutPlanner.getPlan(createRequest(1000, mGeometry)));
+        final FramePlan plan = mLayoutPlanner.getPlan(createRequest(1100, mGeometry));
+        assertNotNull(plan);
+        // scroll position 5.5 has item 6 in the center
+        assertEquals(6, plan.mLayoutHelper.mItemAdapterPositions[plan.mLayoutHelper.mLayoutCount - 1]);
+        assertEquals(0.5f, plan.mLayoutHelper.mItemPositionDiffs[plan.mLayoutHelper.mLayoutCount - 1], DELTA);
+    }
+
+    @Test
+    public void rejectedPlanFallsBackToSynchronousLayout() {
+        final LayoutPlanner layoutPlanner = new LayoutPlanner(new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        final FramePlan request = createRequest(1000, mGeometry);
+        layoutPlanner.schedule(request);
+        layoutPlanner.finish();
+
+        assertNull(layoutPlanner.getPlan(request));
+    }
+
+    @Test
+    public void finishWaitsForRunningPlan() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CarouselGeometry blockingGeometry = new CarouselGeometry() {
+            @Override
+            public void transformItems(@NonNull final ItemTransformationBatch batch) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public boolean isPure() {
+                return true;
+            }
+        };
+        final LayoutPlanner layoutPlanner = new LayoutPlanner(new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                new Thread(command).start();
+            }
+        });
+        final FramePlan request = createRequest(1000, blockingGeometry);
+        layoutPlanner.schedule(request);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        final Thread finishThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                layoutPlanner.finish();
+            }
+        });
+        finishThread.start();
+        finishThread.join(100);
+        assertTrue(finishThread.isAlive());
+
+        release.countDown();
+        finishThread.join(10000);
+        assertFalse(finishThread.isAlive());
+        assertNotNull(layoutPlanner.getPlan(request));
+    }
+
+    @Test
+    public void circlePlanWrapsAdapterBounds() {
+        final FramePlan request = new FramePlan();
+        request.setInputs(ITEM_SIZE / 4, ITEM_SIZE, 10, true, 2, CarouselLayoutManager.VERTICAL, ITEM_SIZE, ITEM_SIZE, 300, mGeometry, null, null);
+        mLayoutPlanner.schedule(request);
+        runTasks();
+        mLayoutPlanner.finish();
+
+        final FramePlan plan = mLayoutPlanner.getPlan(request);
+        assertNotNull(plan);
+        final int[] positions = new int[plan.mLayoutHelper.mLayoutCount];
+        System.arraycopy(plan.mLayoutHelper.mItemAdapterPositions, 0, positions, 0, positions.length);
+        assertArrayEquals(new int[]{8, 9, 2, 1, 0}, positions);
+    }
+
+    private void runTasks() {
+        final List<Runnable> tasks = new ArrayList<>(mTasks);
+        mTasks.clear();
+        for (final Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    @NonNull
+    private static FramePlan createRequest(final long scrollOffset, final CarouselGeometry geometry) {
+        final FramePlan request = new FramePlan();
+        request.setInputs(scrollOffset, ITEM_SIZE, 20, false, 3, CarouselLayoutManager.HORIZONTAL, ITEM_SIZE, ITEM_SIZE, 300, geometry, null, null);
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LookupTableOffsetCurveTest {
+
+    private static final int MAX_VISIBLE_ITEMS = 5;
+    private static final int CARD_OFFSET_DIMEN = 500;
+
+    private DefaultOffsetCurve mSourceCurve;
+    private LookupTableOffsetCurve mOffsetCurve;
+
+    @Before
+    public void setUp() {
+        mSourceCurve = new DefaultOffsetCurve();
+        mOffsetCurve = new LookupTableOffsetCurve(mSourceCurve);
+        mOffsetCurve.onLayoutChanged(MAX_VISIBLE_ITEMS, CARD_OFFSET_DIMEN);
+    }
+
+    @Test
+    public void offsetsDifferFromSourceLessThenPixel() {
+        assertCloseToSource(MAX_VISIBLE_ITEMS, CARD_OFFSET_DIMEN);
+    }
+
+    @Test
+    public void differencesOutsideTableUseSource() {
+        for (final float itemPositionDiff : new float[]{MAX_VISIBLE_ITEMS + 1.5f, -(MAX_VISIBLE_ITEMS + 1.5f), 100}) {
+            assertEquals(mSourceCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, MAX_VISIBLE_ITEMS),
+                    mOffsetCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, MAX_VISIBLE_ITEMS), 0);
+        }
+    }
+
+    @Test
+    public void tableIsRebuiltForNewLayout() {
+        mOffsetCurve.onLayoutChanged(2, 100);
+        assertCloseToSource(2, 100);
+
+        // curve can be called with new maxVisibleItems before layout change callback
+        assertCloseToSource(10, 100);
+    }
+
+    @Test
+    public void layoutChangeIsPassedToSource() {
+        final int[] calls = new int[1];
+        final CarouselOffsetCurve sourceCurve = new DefaultOffsetCurve() {
+            @Override
+            public void onLayoutChanged(final int maxVisibleItems, final int cardOffsetDimen) {
+                ++calls[0];
+            }
+        };
+        final LookupTableOffsetCurve offsetCurve = new LookupTableOffsetCurve(sourceCurve);
+
+        offsetCurve.onLayoutChanged(MAX_VISIBLE_ITEMS, CARD_OFFSET_DIMEN);
+        offsetCurve.onLayoutChanged(MAX_VISIBLE_ITEMS, CARD_OFFSET_DIMEN);
+
+        assertEquals(2, calls[0]);
+    }
+
+    private void assertCloseToSource(final int maxVisibleItems, final int cardOffsetDimen) {
+        for (int i = -1000; i <= 1000; ++i) {
+            final float itemPositionDiff = (maxVisibleItems + 1) * i / 1000.0f;
+            final double expected = mSourceCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, maxVisibleItems);
+            final double actual = mOffsetCurve.convertItemPositionDiffToSmoothPositionDiff(itemPositionDiff, maxVisibleItems);
+            assertTrue(itemPositionDiff + ": " + expected + " != " + actual, Math.abs(expected - actual) * cardOffsetDimen < 1);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OcclusionCullerTest {
+
+    private OcclusionCuller mOcclusionCuller;
+
+    @Before
+    public void setUp() {
+        mOcclusionCuller = new OcclusionCuller();
+    }
+
+    @Test
+    public void coveredItemIsCulled() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 10, 90, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, true, true);
+
+        assertEquals(1, mOcclusionCuller.cull(0));
+        assertTrue(mOcclusionCuller.mCulled[0]);
+        assertFalse(mOcclusionCuller.mCulled[1]);
+    }
+
+    @Test
+    public void partlyCoveredItemIsCulledByThreshold() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 20, 200, 0, 100, true, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+        assertEquals(0, mOcclusionCuller.cull(0.1f));
+        assertEquals(1, mOcclusionCuller.cull(0.2f));
+        assertTrue(mOcclusionCuller.mCulled[0]);
+    }
+
+    @Test
+    public void coveringIntervalsAreJoined() {
+        mOcclusionCuller.init(4);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 40, 100, 0, 100, true, false);
+        mOcclusionCuller.setItem(2, 50, 70, 0, 100, true, false);
+        mOcclusionCuller.setItem(3, 0, 50, 0, 100, true, false);
+
+        assertEquals(1, mOcclusionCuller.cull(0));
+        assertTrue(mOcclusionCuller.mCulled[0]);
+    }
+
+    @Test
+    public void transparentItemDoesNotCull() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, false, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+        assertFalse(mOcclusionCuller.mCulled[0]);
+    }
+
+    @Test
+    public void narrowItemDoesNotCull() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 10, 100, true, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+    }
+
+    @Test
+    public void itemIsCoveredOnlyByItemsDrawnOverIt() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 10, 90, 0, 100, true, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+    }
+
+    @Test
+    public void notCullableItemIsKept() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, false);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, true, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+        assertFalse(mOcclusionCuller.mCulled[0]);
+    }
+
+    @Test
+    public void culledItemDoesNotCoverOthers() {
+        mOcclusionCuller.init(3);
+        mOcclusionCuller.setItem(0, 40, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(2, 0, 60, 0, 100, true, true);
+
+        assertEquals(1, mOcclusionCuller.cull(0.5f));
+        assertFalse(mOcclusionCuller.mCulled[0]);
+        assertTrue(mOcclusionCuller.mCulled[1]);
+        assertFalse(mOcclusionCuller.mCulled[2]);
+    }
+
+    @Test
+    public void emptyItemIsKept() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 50, 50, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, true, true);
+
+        assertEquals(0, mOcclusionCuller.cull(0));
+    }
+
+    @Test
+    public void previousResultIsReset() {
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 0, 100, 0, 100, true, true);
+        assertEquals(1, mOcclusionCuller.cull(0));
+
+        mOcclusionCuller.init(2);
+        mOcclusionCuller.setItem(0, 0, 100, 0, 100, true, true);
+        mOcclusionCuller.setItem(1, 100, 200, 0, 100, true, true);
+        assertEquals(0, mOcclusionCuller.cull(0));
+        assertFalse(mOcclusionCuller.mCulled[0]);
+    }
+}
\ No newline at end of file
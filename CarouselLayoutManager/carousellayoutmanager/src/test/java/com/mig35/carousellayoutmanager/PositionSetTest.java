@@ -0,0 +1,86 @@
+package com.mig35.carousellayoutmanager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PositionSetTest {
+
+    private PositionSet mPositionSet;
+
+    @Before
+    public void setUp() {
+        mPositionSet = new PositionSet();
+    }
+
+    @Test
+    public void newSetIsEmpty() {
+        for (int i = 0; i < 100; ++i) {
+            assertFalse(mPositionSet.contains(i));
+        }
+    }
+
+    @Test
+    public void addedPositionsAreContained() {
+        mPositionSet.clear(1000);
+        for (int i = 0; i < 1000; i += 2) {
+            mPositionSet.add(i);
+        }
+        for (int i = 0; i < 1000; ++i) {
+            assertTrue(String.valueOf(i), (0 == i % 2) == mPositionSet.contains(i));
+        }
+    }
+
+    @Test
+    public void duplicatePositionsAreStoredOnce() {
+        mPositionSet.clear(1);
+        // the second add would overflow the table if it was stored again
+        for (int i = 0; i < 100; ++i) {
+            mPositionSet.add(7);
+        }
+        assertTrue(mPositionSet.contains(7));
+        assertFalse(mPositionSet.contains(8));
+    }
+
+    @Test
+    public void collidingPositionsAreContained() {
+        mPositionSet.clear(8);
+        for (int i = 0; i < 8; ++i) {
+            mPositionSet.add(i << 16);
+        }
+        for (int i = 0; i < 8; ++i) {
+            assertTrue(mPositionSet.contains(i << 16));
+        }
+        assertFalse(mPositionSet.contains(8 << 16));
+    }
+
+    @Test
+    public void negativePositionsAreIgnored() {
+        mPositionSet.clear(2);
+        mPositionSet.add(-1);
+        mPositionSet.add(Integer.MIN_VALUE);
+
+        assertFalse(mPositionSet.contains(-1));
+        assertFalse(mPositionSet.contains(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void clearRemovesPositions() {
+        mPositionSet.clear(3);
+        mPositionSet.add(1);
+        mPositionSet.add(2);
+        mPositionSet.add(3);
+
+        mPositionSet.clear(3);
+        assertFalse(mPositionSet.contains(1));
+        assertFalse(mPositionSet.contains(2));
+        assertFalse(mPositionSet.contains(3));
+
+        // growing clear drops positions too
+        mPositionSet.add(4);
+        mPositionSet.clear(1000);
+        assertFalse(mPositionSet.contains(4));
+    }
+}
\ No newline at end of file
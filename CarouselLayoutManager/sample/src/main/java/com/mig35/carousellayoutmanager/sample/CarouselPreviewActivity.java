@@ -9,8 +9,8 @@ import android.view.ViewGroup;
 import android.widget.Toast;
 
 import com.mig35.carousellayoutmanager.CarouselLayoutManager;
+import com.mig35.carousellayoutmanager.CarouselSnapHelper;
 import com.mig35.carousellayoutmanager.CarouselZoomPostLayoutListener;
-import com.mig35.carousellayoutmanager.CenterScrollListener;
 import com.mig35.carousellayoutmanager.DefaultChildSelectionListener;
 import com.mig35.carousellayoutmanager.sample.databinding.ActivityCarouselPreviewBinding;
 import com.mig35.carousellayoutmanager.sample.databinding.ItemViewBinding;
@@ -82,8 +82,8 @@ public class CarouselPreviewActivity extends AppCompatActivity {
         recyclerView.setHasFixedSize(true);
         // sample adapter with random data
         recyclerView.setAdapter(adapter);
-        // enable center post scrolling
-        recyclerView.addOnScrollListener(new CenterScrollListener());
+        // enable centering of items after fling and scroll
+        new CarouselSnapHelper().attachToRecyclerView(recyclerView);
         // enable center post touching on item and item click listener
         DefaultChildSelectionListener.initCenterItemListener(new DefaultChildSelectionListener.OnCenterItemClickListener() {
             @Override